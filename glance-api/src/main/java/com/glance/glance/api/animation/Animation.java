@@ -0,0 +1,288 @@
+package com.glance.glance.api.animation;
+
+import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.model.properties.Color;
+import com.glance.glance.api.model.properties.Transform;
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * A keyframe animation of a model's transform and glow color.
+ * <p>
+ * Instead of sending the model every tick, the transform is only sent at segment boundaries with
+ * an interpolation duration spanning the segment, and the client interpolates in between. Eased
+ * segments are split into the fewest linear pieces within the tolerances when the animation is
+ * built. The glow color is not interpolated by the client, so it is sent whenever it drifts past
+ * its tolerance.
+ * <p>
+ * Animations are immutable and can be shared between any number of models, see {@link Animator}.
+ */
+public final class Animation {
+
+    private final int length;
+    private final boolean loop;
+
+    @Nullable
+    private final Track<Vector3f> translation;
+    @Nullable
+    private final Track<Quaternionf> leftRotation;
+    @Nullable
+    private final Track<Vector3f> scale;
+    @Nullable
+    private final Track<Quaternionf> rightRotation;
+    @Nullable
+    private final Track<Color> glowColor;
+
+    // Compiled schedule, transform samples are the targets interpolated towards
+    private final int[] transformTicks;
+    private final Vector3f[] translations;
+    private final Quaternionf[] leftRotations;
+    private final Vector3f[] scales;
+    private final Quaternionf[] rightRotations;
+    private final int[] colorTicks;
+    private final Color[] colors;
+
+    private Animation(Builder builder) {
+        this.loop = builder.loop;
+        this.translation = builder.translation.isEmpty() ? null : new Track<>(builder.translation, Animation::lerp, Vector3f::distance);
+        this.leftRotation = builder.leftRotation.isEmpty() ? null : new Track<>(builder.leftRotation, Animation::slerp, Animation::angle);
+        this.scale = builder.scale.isEmpty() ? null : new Track<>(builder.scale, Animation::lerp, Vector3f::distance);
+        this.rightRotation = builder.rightRotation.isEmpty() ? null : new Track<>(builder.rightRotation, Animation::slerp, Animation::angle);
+        this.glowColor = builder.glowColor.isEmpty() ? null : new Track<>(builder.glowColor, Animation::lerp, Animation::difference);
+
+        int length = 0;
+        NavigableSet<Integer> transformTicks = new TreeSet<>();
+        if (this.translation != null) {
+            this.translation.interpolatedBreakpoints(builder.tolerance, transformTicks);
+            length = Math.max(length, this.translation.getLastTick());
+        }
+        if (this.leftRotation != null) {
+            this.leftRotation.interpolatedBreakpoints(builder.angleTolerance, transformTicks);
+            length = Math.max(length, this.leftRotation.getLastTick());
+        }
+        if (this.scale != null) {
+            this.scale.interpolatedBreakpoints(builder.tolerance, transformTicks);
+            length = Math.max(length, this.scale.getLastTick());
+        }
+        if (this.rightRotation != null) {
+            this.rightRotation.interpolatedBreakpoints(builder.angleTolerance, transformTicks);
+            length = Math.max(length, this.rightRotation.getLastTick());
+        }
+        NavigableSet<Integer> colorTicks = new TreeSet<>();
+        if (this.glowColor != null) {
+            this.glowColor.steppedBreakpoints(builder.colorTolerance, colorTicks);
+            length = Math.max(length, this.glowColor.getLastTick());
+        }
+        Validation.checkArg(length > 0, "an animation must last at least one tick");
+        this.length = length;
+
+        // Every track is sampled at the same boundaries, the transform is interpolated as a whole
+        if (!transformTicks.isEmpty()) transformTicks.add(0);
+        this.transformTicks = transformTicks.stream().mapToInt(Integer::intValue).toArray();
+        this.translations = new Vector3f[this.transformTicks.length];
+        this.leftRotations = new Quaternionf[this.transformTicks.length];
+        this.scales = new Vector3f[this.transformTicks.length];
+        this.rightRotations = new Quaternionf[this.transformTicks.length];
+        for (int i = 0; i < this.transformTicks.length; i++) {
+            int tick = this.transformTicks[i];
+            if (this.translation != null) this.translations[i] = this.translation.valueAt(tick);
+            if (this.leftRotation != null) this.leftRotations[i] = this.leftRotation.valueAt(tick);
+            if (this.scale != null) this.scales[i] = this.scale.valueAt(tick);
+            if (this.rightRotation != null) this.rightRotations[i] = this.rightRotation.valueAt(tick);
+        }
+        this.colorTicks = colorTicks.stream().mapToInt(Integer::intValue).toArray();
+        this.colors = new Color[this.colorTicks.length];
+        for (int i = 0; i < this.colorTicks.length; i++) {
+            this.colors[i] = this.glowColor.valueAt(this.colorTicks[i]);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the length of one run of this animation.
+     *
+     * @return The length in ticks.
+     */
+    public int getLength() {
+        return this.length;
+    }
+
+    public boolean isLooping() {
+        return this.loop;
+    }
+
+    /**
+     * Gets the number of transform and color updates one run of this animation sends.
+     *
+     * @return The number of updates.
+     */
+    public int getUpdateCount() {
+        return Math.max(0, this.transformTicks.length - 1) + this.colorTicks.length;
+    }
+
+    int[] getTransformTicks() {
+        return this.transformTicks;
+    }
+
+    int[] getColorTicks() {
+        return this.colorTicks;
+    }
+
+    /**
+     * Starts interpolating a model towards a transform sample.
+     *
+     * @param model    The model.
+     * @param index    The index of the sample.
+     * @param duration The number of ticks until the sample is reached.
+     */
+    void applyTransform(@NotNull GlanceModel model, int index, int duration) {
+        model.interpolateTransform(0, duration, transform -> applySample(transform, index));
+    }
+
+    void applyColor(@NotNull GlanceModel model, int index) {
+        model.setGlowWithColor(this.colors[index]);
+    }
+
+    private void applySample(Transform transform, int index) {
+        if (this.translations[index] != null) transform.getTranslation().set(this.translations[index]);
+        if (this.leftRotations[index] != null) transform.getLeftRotation().set(this.leftRotations[index]);
+        if (this.scales[index] != null) transform.getScale().set(this.scales[index]);
+        if (this.rightRotations[index] != null) transform.getRightRotation().set(this.rightRotations[index]);
+        transform.markChanged();
+    }
+
+    /* Blending */
+
+    private static Vector3f lerp(Vector3f from, Vector3f to, float progress) {
+        return new Vector3f(from).lerp(to, progress);
+    }
+
+    private static Quaternionf slerp(Quaternionf from, Quaternionf to, float progress) {
+        return new Quaternionf(from).slerp(to, progress);
+    }
+
+    private static float angle(Quaternionf first, Quaternionf second) {
+        return (float) (2.0 * Math.acos(Math.min(1.0F, Math.abs(first.dot(second)))));
+    }
+
+    private static Color lerp(Color from, Color to, float progress) {
+        return new Color(
+                Math.round(from.alpha() + (to.alpha() - from.alpha()) * progress),
+                Math.round(from.red() + (to.red() - from.red()) * progress),
+                Math.round(from.green() + (to.green() - from.green()) * progress),
+                Math.round(from.blue() + (to.blue() - from.blue()) * progress)
+        );
+    }
+
+    private static float difference(Color first, Color second) {
+        return Math.max(
+                Math.max(Math.abs(first.alpha() - second.alpha()), Math.abs(first.red() - second.red())),
+                Math.max(Math.abs(first.green() - second.green()), Math.abs(first.blue() - second.blue()))
+        );
+    }
+
+    public static final class Builder {
+
+        private final List<Keyframe<Vector3f>> translation = new ArrayList<>();
+        private final List<Keyframe<Quaternionf>> leftRotation = new ArrayList<>();
+        private final List<Keyframe<Vector3f>> scale = new ArrayList<>();
+        private final List<Keyframe<Quaternionf>> rightRotation = new ArrayList<>();
+        private final List<Keyframe<Color>> glowColor = new ArrayList<>();
+        private float tolerance = 0.01F;
+        private float angleTolerance = 0.01F;
+        private float colorTolerance = 4.0F;
+        private boolean loop;
+
+        private Builder() {}
+
+        public Builder translation(int tick, @NotNull Vector3f translation, @NotNull Easing easing) {
+            this.translation.add(new Keyframe<>(tick, new Vector3f(translation), easing));
+            return this;
+        }
+
+        public Builder leftRotation(int tick, @NotNull Quaternionf rotation, @NotNull Easing easing) {
+            this.leftRotation.add(new Keyframe<>(tick, new Quaternionf(rotation), easing));
+            return this;
+        }
+
+        public Builder scale(int tick, @NotNull Vector3f scale, @NotNull Easing easing) {
+            this.scale.add(new Keyframe<>(tick, new Vector3f(scale), easing));
+            return this;
+        }
+
+        public Builder rightRotation(int tick, @NotNull Quaternionf rotation, @NotNull Easing easing) {
+            this.rightRotation.add(new Keyframe<>(tick, new Quaternionf(rotation), easing));
+            return this;
+        }
+
+        public Builder glowColor(int tick, @NotNull Color color, @NotNull Easing easing) {
+            this.glowColor.add(new Keyframe<>(tick, color, easing));
+            return this;
+        }
+
+        /**
+         * Sets the maximum deviation of translation and scale from their eased curves, in blocks. Defaults to 0.01.
+         *
+         * @param tolerance The tolerance.
+         * @return This builder.
+         */
+        public Builder tolerance(float tolerance) {
+            Validation.checkArg(tolerance > 0, "tolerance must be positive");
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Sets the maximum deviation of rotations from their eased curves, in radians. Defaults to 0.01.
+         *
+         * @param tolerance The angle tolerance.
+         * @return This builder.
+         */
+        public Builder angleTolerance(float tolerance) {
+            Validation.checkArg(tolerance > 0, "angle tolerance must be positive");
+            this.angleTolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Sets the maximum deviation of the glow color from its eased curve, per channel. Defaults to 4.
+         *
+         * @param tolerance The color tolerance.
+         * @return This builder.
+         */
+        public Builder colorTolerance(int tolerance) {
+            Validation.checkArg(tolerance >= 0, "color tolerance must not be negative");
+            this.colorTolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Sets whether the animation restarts once it ends. A looping animation should end
+         * on its starting values.
+         *
+         * @param loop Whether to loop.
+         * @return This builder.
+         */
+        public Builder loop(boolean loop) {
+            this.loop = loop;
+            return this;
+        }
+
+        public Animation build() {
+            return new Animation(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.glance.glance.api.animation;
+
+import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Plays {@link Animation}s on models. {@link #tick()} must be called once per tick,
+ * before the engine updates its models.
+ * <p>
+ * A playback starts from the model's current transform and interpolates towards the
+ * first sample after tick 0. Not thread-safe.
+ */
+public final class Animator {
+
+    private final Map<GlanceModel, Playback> playbacks = new IdentityHashMap<>();
+
+    /**
+     * Plays an animation on a model, replacing the animation it was playing.
+     *
+     * @param model     The model.
+     * @param animation The animation.
+     */
+    public void play(@NotNull GlanceModel model, @NotNull Animation animation) {
+        Validation.checkNotNull(model, "model");
+        Validation.checkNotNull(animation, "animation");
+        this.playbacks.put(model, new Playback(model, animation));
+    }
+
+    /**
+     * Stops the animation of a model. The model keeps its current state, including any
+     * interpolation already sent.
+     *
+     * @param model The model.
+     * @return {@code true} if an animation was stopped, {@code false} otherwise.
+     */
+    public boolean stop(@NotNull GlanceModel model) {
+        return this.playbacks.remove(model) != null;
+    }
+
+    public boolean isPlaying(@NotNull GlanceModel model) {
+        return this.playbacks.containsKey(model);
+    }
+
+    /**
+     * Advances every playback by one tick, updating the models reaching a sample.
+     */
+    public void tick() {
+        Iterator<Playback> iterator = this.playbacks.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().tick()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Playback {
+
+        private final GlanceModel model;
+        private final Animation animation;
+        private int elapsed;
+        private int transformIndex;
+        private int colorIndex;
+
+        private Playback(GlanceModel model, Animation animation) {
+            this.model = model;
+            this.animation = animation;
+        }
+
+        private boolean tick() {
+            int[] transformTicks = this.animation.getTransformTicks();
+            if (this.transformIndex < transformTicks.length - 1 && transformTicks[this.transformIndex] == this.elapsed) {
+                int target = this.transformIndex + 1;
+                this.animation.applyTransform(this.model, target, transformTicks[target] - this.elapsed);
+                this.transformIndex = target;
+            }
+            int[] colorTicks = this.animation.getColorTicks();
+            if (this.colorIndex < colorTicks.length && colorTicks[this.colorIndex] == this.elapsed) {
+                this.animation.applyColor(this.model, this.colorIndex++);
+            }
+
+            this.elapsed++;
+            if (this.animation.isLooping() && this.elapsed == this.animation.getLength()) {
+                // The last tick of a run is the first tick of the next one
+                this.elapsed = 0;
+                this.transformIndex = 0;
+                this.colorIndex = 0;
+                return true;
+            }
+            return this.elapsed <= this.animation.getLength();
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.glance.glance.api.animation;
+
+/**
+ * Maps the linear progress through a keyframe segment to the eased progress.
+ * <p>
+ * Non-linear easings are approximated by linear segments when an {@link Animation} is built,
+ * as the client only interpolates linearly.
+ */
+@FunctionalInterface
+public interface Easing {
+
+    Easing LINEAR = progress -> progress;
+    Easing IN_QUAD = progress -> progress * progress;
+    Easing OUT_QUAD = progress -> progress * (2.0F - progress);
+    Easing IN_OUT_QUAD = progress -> progress < 0.5F
+            ? 2.0F * progress * progress
+            : -1.0F + (4.0F - 2.0F * progress) * progress;
+    Easing IN_CUBIC = progress -> progress * progress * progress;
+    Easing OUT_CUBIC = progress -> {
+        float inverse = progress - 1.0F;
+        return inverse * inverse * inverse + 1.0F;
+    };
+    Easing IN_OUT_SINE = progress -> (float) (-(Math.cos(Math.PI * progress) - 1.0) / 2.0);
+
+    /**
+     * Eases the progress through a segment.
+     *
+     * @param progress The linear progress, between 0 and 1.
+     * @return The eased progress, 0 at the start and 1 at the end of the segment.
+     */
+    float apply(float progress);
+
+}
@@ -0,0 +1,19 @@
+package com.glance.glance.api.animation;
+
+import com.glance.glance.api.utils.Validation;
+
+/**
+ * Represents the value of an animated property at a given tick.
+ *
+ * @param tick   The tick of the keyframe, relative to the start of the animation.
+ * @param value  The value of the property at this tick.
+ * @param easing The easing of the segment leading up to this keyframe.
+ * @param <T>    The type of the property.
+ */
+public record Keyframe<T>(int tick, T value, Easing easing) {
+    public Keyframe {
+        Validation.checkArg(tick >= 0, "keyframe tick must not be negative");
+        Validation.checkNotNull(value, "keyframe value");
+        Validation.checkNotNull(easing, "easing");
+    }
+}
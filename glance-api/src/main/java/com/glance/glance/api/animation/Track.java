@@ -0,0 +1,139 @@
+package com.glance.glance.api.animation;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+
+/**
+ * The keyframes of one animated property.
+ *
+ * @param <T> The type of the property.
+ */
+public final class Track<T> {
+
+    private final List<Keyframe<T>> keyframes;
+    private final Blend<T> blend;
+    private final Deviation<T> deviation;
+
+    Track(@NotNull List<Keyframe<T>> keyframes, @NotNull Blend<T> blend, @NotNull Deviation<T> deviation) {
+        Validation.checkArg(!keyframes.isEmpty(), "a track needs at least one keyframe");
+        List<Keyframe<T>> sorted = new ArrayList<>(keyframes);
+        sorted.sort(Comparator.comparingInt(Keyframe::tick));
+        for (int i = 1; i < sorted.size(); i++) {
+            Validation.checkArg(sorted.get(i - 1).tick() != sorted.get(i).tick(), "duplicate keyframe at tick " + sorted.get(i).tick());
+        }
+        this.keyframes = List.copyOf(sorted);
+        this.blend = blend;
+        this.deviation = deviation;
+    }
+
+    @NotNull
+    public List<Keyframe<T>> getKeyframes() {
+        return this.keyframes;
+    }
+
+    public int getLastTick() {
+        return this.keyframes.get(this.keyframes.size() - 1).tick();
+    }
+
+    /**
+     * Evaluates this track. Before the first and after the last keyframe the value is held.
+     *
+     * @param tick The tick, relative to the start of the animation.
+     * @return The eased value at this tick.
+     */
+    @NotNull
+    public T valueAt(int tick) {
+        Keyframe<T> previous = this.keyframes.get(0);
+        if (tick <= previous.tick()) {
+            return previous.value();
+        }
+        for (int i = 1; i < this.keyframes.size(); i++) {
+            Keyframe<T> next = this.keyframes.get(i);
+            if (tick < next.tick()) {
+                float progress = (float) (tick - previous.tick()) / (next.tick() - previous.tick());
+                return this.blend.blend(previous.value(), next.value(), next.easing().apply(progress));
+            }
+            previous = next;
+        }
+        return previous.value();
+    }
+
+    /**
+     * Collects the ticks at which this track must be sampled so that the client's linear
+     * interpolation between samples stays within a tolerance. Linear segments only need their
+     * keyframes, eased segments are split into the fewest linear pieces found greedily.
+     *
+     * @param tolerance The maximum deviation between the interpolated and the eased value.
+     * @param ticks     The set to add the ticks to.
+     */
+    void interpolatedBreakpoints(float tolerance, @NotNull NavigableSet<Integer> ticks) {
+        for (int i = 0; i < this.keyframes.size(); i++) {
+            Keyframe<T> end = this.keyframes.get(i);
+            ticks.add(end.tick());
+            if (i == 0 || end.easing() == Easing.LINEAR) continue;
+            int start = this.keyframes.get(i - 1).tick();
+            while (start < end.tick()) {
+                int reach = start + 1;
+                while (reach < end.tick() && isLinear(start, reach + 1, tolerance)) {
+                    reach++;
+                }
+                ticks.add(reach);
+                start = reach;
+            }
+        }
+    }
+
+    /**
+     * Collects the ticks at which this track must be sampled when the client does not
+     * interpolate it, so the held value stays within a tolerance.
+     *
+     * @param tolerance The maximum deviation between the held and the eased value.
+     * @param ticks     The set to add the ticks to.
+     */
+    void steppedBreakpoints(float tolerance, @NotNull NavigableSet<Integer> ticks) {
+        int first = this.keyframes.get(0).tick();
+        ticks.add(first);
+        T held = valueAt(first);
+        for (int tick = first + 1; tick <= getLastTick(); tick++) {
+            T value = valueAt(tick);
+            if (this.deviation.between(held, value) > tolerance) {
+                ticks.add(tick);
+                held = value;
+            }
+        }
+    }
+
+    private boolean isLinear(int start, int end, float tolerance) {
+        T from = valueAt(start);
+        T to = valueAt(end);
+        for (int tick = start + 1; tick < end; tick++) {
+            T linear = this.blend.blend(from, to, (float) (tick - start) / (end - start));
+            if (this.deviation.between(linear, valueAt(tick)) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Interpolates between two values the way the client does.
+     */
+    @FunctionalInterface
+    interface Blend<T> {
+        T blend(T from, T to, float progress);
+    }
+
+    /**
+     * Measures the difference between two values.
+     */
+    @FunctionalInterface
+    interface Deviation<T> {
+        float between(T first, T second);
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.glance.glance.api.engine;
 
+import com.glance.glance.api.engine.interaction.InteractionListener;
+import com.glance.glance.api.engine.metrics.GlanceMetrics;
+import com.glance.glance.api.engine.packets.PacketBudget;
 import com.glance.glance.api.model.GlanceModel;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3f;
 
 import java.util.Set;
@@ -9,6 +13,11 @@ import java.util.UUID;
 
 public interface AbstractEngine<AViewer, ALocation> {
 
+    /**
+     * The distance, in blocks, from which a model with a view range of {@code 1.0} is tracked and rendered.
+     */
+    float VIEW_RANGE_BLOCKS = 64.0F;
+
     /**
      * Initializes the Glance engine for this runtime.
      */
@@ -21,6 +30,37 @@ public interface AbstractEngine<AViewer, ALocation> {
      */
     boolean isCompatible();
 
+    /**
+     * Gets the allocator handing out the entity ids of this engine's models.
+     *
+     * @return The entity id allocator.
+     */
+    @NotNull
+    EntityIdAllocator getEntityIdAllocator();
+
+    /**
+     * Gets the outbound budget of each viewer per tick.
+     *
+     * @return The packet budget.
+     */
+    @NotNull
+    PacketBudget getPacketBudget();
+
+    /**
+     * Sets the outbound budget of each viewer per tick.
+     *
+     * @param budget The new packet budget.
+     */
+    void setPacketBudget(@NotNull PacketBudget budget);
+
+    /**
+     * Gets the runtime statistics of this engine. Safe to read from any thread.
+     *
+     * @return The engine metrics.
+     */
+    @NotNull
+    GlanceMetrics getMetrics();
+
     /* Model Tracking */
     void track(@NotNull GlanceModel model);
     void release(@NotNull GlanceModel model);
@@ -28,6 +68,45 @@ public interface AbstractEngine<AViewer, ALocation> {
     boolean isTracked(@NotNull GlanceModel model);
     boolean isTracked(@NotNull UUID modelId);
 
+    /**
+     * Gets a tracked model by its unique id. Safe to call from any thread.
+     *
+     * @param modelId The unique id of the model.
+     * @return The model, or {@code null} if it is not tracked.
+     */
+    @Nullable
+    GlanceModel getModel(@NotNull UUID modelId);
+
+    /**
+     * Gets a tracked model by the entity id it is spawned with, e.g. to resolve the target of
+     * an incoming interaction. Safe to call from any thread.
+     *
+     * @param entityId The entity id.
+     * @return The model, or {@code null} if no tracked model uses this id.
+     */
+    @Nullable
+    GlanceModel getModel(int entityId);
+
+    /**
+     * Gets the listener receiving interactions with this engine's models.
+     *
+     * @return The listener, or {@code null} if interactions are not intercepted.
+     */
+    @Nullable
+    InteractionListener<AViewer> getInteractionListener();
+
+    /**
+     * Sets the listener receiving interactions with this engine's models. While a listener is
+     * set, interactions aimed at tracked models are intercepted from the connections of their
+     * viewers and never reach the server. Without one, connections are left untouched.
+     * <p>
+     * Setting a listener intercepts every connected viewer right away, so it has to be called
+     * from the thread ticking the engine.
+     *
+     * @param listener The listener, or {@code null} to stop intercepting.
+     */
+    void setInteractionListener(@Nullable InteractionListener<AViewer> listener);
+
     /* Viewers */
     void addViewer(GlanceModel model, AViewer viewer);
     void removeViewer(GlanceModel model, AViewer viewer);
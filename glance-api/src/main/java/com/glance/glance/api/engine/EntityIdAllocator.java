@@ -0,0 +1,133 @@
+package com.glance.glance.api.engine;
+
+import com.glance.glance.api.utils.Validation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hands out client-side entity ids from a reserved range, far above the ids the server assigns itself.
+ * <p>
+ * Released ids are recycled through a bounded lock-free queue before fresh ids are taken, so
+ * short-lived models do not drain the range. When the recycle queue is full a released id is
+ * simply dropped. Every method is safe to call from any thread without locking.
+ */
+public final class EntityIdAllocator {
+
+    /**
+     * The first id of the default range. The server counter would need a billion entities to reach it.
+     */
+    public static final int DEFAULT_FIRST_ID = 1 << 30;
+    public static final int DEFAULT_RECYCLE_CAPACITY = 1 << 16;
+
+    private final int firstId;
+    private final int lastId;
+    private final AtomicLong nextFresh;
+
+    // Bounded multi-producer multi-consumer ring of recycled ids
+    private final int mask;
+    private final int[] recycled;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public EntityIdAllocator() {
+        this(DEFAULT_FIRST_ID, Integer.MAX_VALUE, DEFAULT_RECYCLE_CAPACITY);
+    }
+
+    /**
+     * Creates an allocator over an id range.
+     *
+     * @param firstId          The first id of the range (inclusive).
+     * @param lastId           The last id of the range (inclusive).
+     * @param recycleCapacity  The number of released ids kept for reuse, a power of two.
+     */
+    public EntityIdAllocator(int firstId, int lastId, int recycleCapacity) {
+        Validation.checkArg(firstId > 0 && firstId <= lastId, "Invalid entity id range " + firstId + ".." + lastId);
+        Validation.checkArg(recycleCapacity > 0 && Integer.bitCount(recycleCapacity) == 1, "recycleCapacity must be a power of two");
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.nextFresh = new AtomicLong(firstId);
+        this.mask = recycleCapacity - 1;
+        this.recycled = new int[recycleCapacity];
+        this.sequences = new AtomicLongArray(recycleCapacity);
+        for (int i = 0; i < recycleCapacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Allocates an entity id, preferring a recycled one.
+     *
+     * @return The entity id.
+     * @throws IllegalStateException if the range is exhausted.
+     */
+    public int allocate() {
+        int id = pollRecycled();
+        if (id != 0) {
+            return id;
+        }
+        long fresh = this.nextFresh.getAndIncrement();
+        Validation.check(fresh <= this.lastId, "Entity id range exhausted");
+        return (int) fresh;
+    }
+
+    /**
+     * Returns an id for reuse. Ids outside this allocator's range are ignored.
+     *
+     * @param id The entity id to release.
+     */
+    public void release(int id) {
+        if (!owns(id)) {
+            return;
+        }
+        long position = this.tail.get();
+        while (true) {
+            int slot = (int) position & this.mask;
+            long difference = this.sequences.get(slot) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.recycled[slot] = id;
+                    this.sequences.set(slot, position + 1);
+                    return;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return; // full, let the id go
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Checks whether an id belongs to this allocator's range.
+     *
+     * @param id The entity id.
+     * @return {@code true} if the id is in range, {@code false} otherwise.
+     */
+    public boolean owns(int id) {
+        return id >= this.firstId && id <= this.lastId;
+    }
+
+    private int pollRecycled() {
+        long position = this.head.get();
+        while (true) {
+            int slot = (int) position & this.mask;
+            long difference = this.sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    int id = this.recycled[slot];
+                    this.sequences.set(slot, position + this.mask + 1);
+                    return id;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                return 0; // empty
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.glance.glance.api.engine;
+
+import com.glance.glance.api.model.GlanceTextModel;
+import com.glance.glance.api.model.properties.TextBinding;
+import com.glance.glance.api.utils.Validation;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Samples the {@link TextBinding}s of tracked text models off the server thread.
+ * <p>
+ * Each tick, one pass over the models is handed to an executor. A sample is compared with the
+ * previous one by hash first, then by equality, and the model is only updated when the text
+ * really changed. A pass still running when the next tick starts makes that tick skip sampling,
+ * so slow suppliers delay samples instead of piling up passes.
+ */
+public final class TextSampler {
+
+    private final Map<GlanceTextModel, Sample> models = new ConcurrentHashMap<>();
+    private final AtomicBoolean sampling = new AtomicBoolean();
+    private final Executor executor;
+
+    public TextSampler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a sampler running its passes on an executor.
+     *
+     * @param executor The executor.
+     */
+    public TextSampler(@NotNull Executor executor) {
+        this.executor = Validation.checkNotNull(executor, "executor");
+    }
+
+    public void add(@NotNull GlanceTextModel model) {
+        this.models.putIfAbsent(Validation.checkNotNull(model, "model"), new Sample());
+    }
+
+    public void remove(@NotNull GlanceTextModel model) {
+        this.models.remove(model);
+    }
+
+    /**
+     * Starts a pass sampling the bindings due this tick, unless the previous pass is still running.
+     *
+     * @param tick The current tick.
+     */
+    public void sample(long tick) {
+        if (!this.sampling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    sampleAll(tick);
+                } finally {
+                    this.sampling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.sampling.set(false);
+        }
+    }
+
+    private void sampleAll(long tick) {
+        for (Map.Entry<GlanceTextModel, Sample> entry : this.models.entrySet()) {
+            GlanceTextModel model = entry.getKey();
+            TextBinding binding = model.getTextBinding();
+            if (binding == null) continue;
+            // Models bound at the same interval are spread over it
+            if ((tick + System.identityHashCode(model)) % binding.interval() != 0) continue;
+            Component text;
+            try {
+                text = binding.supplier().get();
+            } catch (RuntimeException e) {
+                // One failing supplier must not stop the others
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                continue;
+            }
+            if (text != null && entry.getValue().changed(text)) {
+                model.setTextData(text);
+            }
+        }
+    }
+
+    // Only touched by the running pass
+    private static final class Sample {
+
+        private int hash;
+        private Component text;
+
+        private boolean changed(Component text) {
+            int hash = text.hashCode();
+            if (this.text != null && hash == this.hash && text.equals(this.text)) {
+                return false;
+            }
+            this.hash = hash;
+            this.text = text;
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.glance.glance.api.engine.interaction;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the interactions of viewers with models, intercepted from their connections.
+ *
+ * @param <AViewer> The viewer type of the runtime.
+ */
+@FunctionalInterface
+public interface InteractionListener<AViewer> {
+
+    /**
+     * Called on the server thread when a viewer interacts with a tracked model.
+     *
+     * @param viewer      The viewer.
+     * @param interaction The interaction.
+     */
+    void onInteract(@NotNull AViewer viewer, @NotNull ModelInteraction interaction);
+
+}
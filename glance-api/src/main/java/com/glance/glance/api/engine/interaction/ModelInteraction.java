@@ -0,0 +1,46 @@
+package com.glance.glance.api.engine.interaction;
+
+import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+
+/**
+ * Represents a viewer attacking or interacting with a model.
+ *
+ * @param model    The model interacted with.
+ * @param action   The kind of interaction.
+ * @param offHand  Whether the off hand was used. Always {@code false} for attacks.
+ * @param sneaking Whether the viewer was sneaking.
+ * @param position The clicked position relative to the model, only set for {@link Action#INTERACT_AT}.
+ */
+public record ModelInteraction(
+        @NotNull GlanceModel model,
+        @NotNull Action action,
+        boolean offHand,
+        boolean sneaking,
+        @Nullable Vector3f position
+) {
+
+    public ModelInteraction {
+        Validation.checkNotNull(model, "model");
+        Validation.checkNotNull(action, "action");
+    }
+
+    public enum Action {
+        /**
+         * A left click.
+         */
+        ATTACK,
+        /**
+         * A right click.
+         */
+        INTERACT,
+        /**
+         * A right click at a position on the model, sent alongside {@link #INTERACT}.
+         */
+        INTERACT_AT
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.glance.glance.api.engine.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime statistics of an engine, recorded as it ticks.
+ * <p>
+ * Everything here can be read from any thread, e.g. by a metrics exporter or a command, while
+ * the engine keeps recording. Counters are cumulative until {@link #reset()}; gauges hold the
+ * value at the end of the last tick.
+ */
+public final class GlanceMetrics {
+
+    // Per tick
+    private final Histogram tickTime = new Histogram();
+    private final Histogram dirtyModels = new Histogram();
+    // Per viewer and tick
+    private final Histogram viewerPackets = new Histogram();
+    private final Histogram viewerBytes = new Histogram();
+    private final Histogram visibleModels = new Histogram();
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder modelsFlushed = new LongAdder();
+    private final LongAdder packetsSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+
+    private volatile int trackedModels;
+    private volatile int deferredUpdates;
+    private volatile int coalescedModels;
+
+    /* Recording, called by the engine */
+
+    /**
+     * Records a finished update pass.
+     *
+     * @param nanos       The time the pass took, in nanoseconds.
+     * @param dirtyModels The number of changed models flushed by the pass.
+     */
+    public void recordTick(long nanos, int dirtyModels) {
+        this.tickTime.record(nanos);
+        this.dirtyModels.record(dirtyModels);
+        this.ticks.increment();
+        this.modelsFlushed.add(dirtyModels);
+    }
+
+    /**
+     * Records the packets written to a viewer in one flush.
+     *
+     * @param packets The number of packets.
+     * @param bytes   The encoded size of the packets.
+     */
+    public void recordFlush(int packets, int bytes) {
+        this.viewerPackets.record(packets);
+        this.viewerBytes.record(bytes);
+        this.packetsSent.add(packets);
+        this.bytesSent.add(bytes);
+    }
+
+    /**
+     * Records the number of models spawned for a viewer.
+     *
+     * @param models The size of the viewer's visible set.
+     */
+    public void recordVisible(int models) {
+        this.visibleModels.record(models);
+    }
+
+    /**
+     * Updates the gauges at the end of a tick.
+     *
+     * @param trackedModels   The number of tracked models.
+     * @param deferredUpdates The number of updates deferred across every viewer.
+     * @param coalescedModels The number of models holding back changes for coalesced viewers.
+     */
+    public void recordQueues(int trackedModels, int deferredUpdates, int coalescedModels) {
+        this.trackedModels = trackedModels;
+        this.deferredUpdates = deferredUpdates;
+        this.coalescedModels = coalescedModels;
+    }
+
+    /* Reading */
+
+    /**
+     * Gets the duration of the update passes, in nanoseconds.
+     *
+     * @return The tick time histogram.
+     */
+    @NotNull
+    public Histogram getTickTime() {
+        return this.tickTime;
+    }
+
+    /**
+     * Gets the number of changed models flushed per update pass.
+     *
+     * @return The dirty model histogram.
+     */
+    @NotNull
+    public Histogram getDirtyModels() {
+        return this.dirtyModels;
+    }
+
+    /**
+     * Gets the number of packets written per viewer and flush.
+     *
+     * @return The viewer packet histogram.
+     */
+    @NotNull
+    public Histogram getViewerPackets() {
+        return this.viewerPackets;
+    }
+
+    /**
+     * Gets the number of bytes written per viewer and flush.
+     *
+     * @return The viewer byte histogram.
+     */
+    @NotNull
+    public Histogram getViewerBytes() {
+        return this.viewerBytes;
+    }
+
+    /**
+     * Gets the number of models spawned per viewer, sampled every tick.
+     *
+     * @return The visible set histogram.
+     */
+    @NotNull
+    public Histogram getVisibleModels() {
+        return this.visibleModels;
+    }
+
+    public long getTicks() {
+        return this.ticks.sum();
+    }
+
+    public long getModelsFlushed() {
+        return this.modelsFlushed.sum();
+    }
+
+    public long getPacketsSent() {
+        return this.packetsSent.sum();
+    }
+
+    public long getBytesSent() {
+        return this.bytesSent.sum();
+    }
+
+    public int getTrackedModels() {
+        return this.trackedModels;
+    }
+
+    public int getDeferredUpdates() {
+        return this.deferredUpdates;
+    }
+
+    public int getCoalescedModels() {
+        return this.coalescedModels;
+    }
+
+    /**
+     * Clears the counters and histograms. Gauges are kept.
+     */
+    public void reset() {
+        this.tickTime.reset();
+        this.dirtyModels.reset();
+        this.viewerPackets.reset();
+        this.viewerBytes.reset();
+        this.visibleModels.reset();
+        this.ticks.reset();
+        this.modelsFlushed.reset();
+        this.packetsSent.reset();
+        this.bytesSent.reset();
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.glance.glance.api.engine.metrics;
+
+import com.glance.glance.api.utils.Validation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of non-negative values, bucketed by powers of two.
+ * <p>
+ * Recording is lock-free and contention is spread over striped counters, so it is cheap enough
+ * to call on every tick. Percentiles are approximate, they resolve to the upper bound of the
+ * bucket holding them.
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value The value.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        // Bucket i holds the values i bits long, up to 2^i - 1
+        this.buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return The sum.
+     */
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum, or {@code 0} if nothing was recorded.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or {@code 0} if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0.0D : (double) getSum() / count;
+    }
+
+    /**
+     * Gets an approximate percentile of the recorded values.
+     *
+     * @param quantile The quantile, from {@code 0.0} to {@code 1.0}.
+     * @return The upper bound of the bucket holding the percentile, or {@code 0} if nothing was recorded.
+     */
+    public long getPercentile(double quantile) {
+        Validation.checkArg(quantile >= 0.0D && quantile <= 1.0D, "quantile must be between 0 and 1");
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min((1L << i) - 1, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears every recorded value. Values recorded concurrently may be partly kept.
+     */
+    public void reset() {
+        for (LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+        this.count.reset();
+        this.sum.reset();
+        this.max.reset();
+    }
+
+}
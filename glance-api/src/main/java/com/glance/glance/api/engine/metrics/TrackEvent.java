@@ -0,0 +1,26 @@
+package com.glance.glance.api.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event spanning the registration of a model with an engine. Only
+ * registrations longer than the threshold are recorded by default.
+ */
+@Name("glance.Track")
+@Label("Glance Track")
+@Category({"Glance", "Engine"})
+@Description("Registering a model and spawning it for the viewers in range")
+@Threshold("1 ms")
+public final class TrackEvent extends jdk.jfr.Event {
+
+    @Label("Entity Id")
+    public int entityId;
+
+    @Label("Viewers")
+    public int viewers;
+
+}
@@ -0,0 +1,26 @@
+package com.glance.glance.api.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event spanning one engine update pass.
+ */
+@Name("glance.UpdateAll")
+@Label("Glance Update Pass")
+@Category({"Glance", "Engine"})
+@Description("An engine tick, from draining the changed models to flushing every viewer")
+public final class UpdateAllEvent extends jdk.jfr.Event {
+
+    @Label("Dirty Models")
+    public int dirtyModels;
+
+    @Label("Tracked Models")
+    public int trackedModels;
+
+    @Label("Viewers")
+    public int viewers;
+
+}
@@ -0,0 +1,29 @@
+package com.glance.glance.api.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event spanning the update of one changed model. Only updates longer than
+ * the threshold are recorded by default, there may be thousands per tick.
+ */
+@Name("glance.UpdateModel")
+@Label("Glance Model Update")
+@Category({"Glance", "Engine"})
+@Description("Encoding and queueing the changes of a model for its viewers")
+@Threshold("1 ms")
+public final class UpdateModelEvent extends jdk.jfr.Event {
+
+    @Label("Entity Id")
+    public int entityId;
+
+    @Label("Dirty Mask")
+    public int dirtyMask;
+
+    @Label("Viewers")
+    public int viewers;
+
+}
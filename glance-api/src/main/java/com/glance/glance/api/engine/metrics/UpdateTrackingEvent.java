@@ -0,0 +1,26 @@
+package com.glance.glance.api.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A Flight Recorder event spanning the re-indexing of a moved model. Only
+ * updates longer than the threshold are recorded by default.
+ */
+@Name("glance.UpdateTracking")
+@Label("Glance Tracking Update")
+@Category({"Glance", "Engine"})
+@Description("Re-indexing a model in the sections of its world")
+@Threshold("1 ms")
+public final class UpdateTrackingEvent extends jdk.jfr.Event {
+
+    @Label("Entity Id")
+    public int entityId;
+
+    @Label("Viewers")
+    public int viewers;
+
+}
@@ -0,0 +1,27 @@
+package com.glance.glance.api.engine.packets;
+
+import com.glance.glance.api.utils.Validation;
+
+/**
+ * Represents the outbound budget of a single viewer per tick.
+ * <p>
+ * Model updates past the budget, or while the viewer's connection is backed up, are deferred
+ * and sent on later ticks by priority. Spawns and removals are always sent.
+ *
+ * @param bytesPerTick   The encoded bytes of updates sent to a viewer per tick. At least 1.
+ * @param packetsPerTick The queued packets sent to a viewer per tick. At least 1.
+ */
+public record PacketBudget(int bytesPerTick, int packetsPerTick) {
+    public PacketBudget {
+        Validation.checkArg(bytesPerTick >= 1, "bytesPerTick must be at least 1");
+        Validation.checkArg(packetsPerTick >= 1, "packetsPerTick must be at least 1");
+    }
+    /**
+     * No budget, updates are only deferred while the viewer's connection is backed up.
+     */
+    public static final PacketBudget UNLIMITED = new PacketBudget(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    /**
+     * The default {@link PacketBudget} of 32 KiB and 512 packets per tick, around 5 Mbit/s at 20 ticks per second.
+     */
+    public static final PacketBudget DEFAULT = new PacketBudget(32 * 1024, 512);
+}
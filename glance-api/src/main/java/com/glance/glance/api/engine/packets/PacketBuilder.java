@@ -1,4 +1,51 @@
 package com.glance.glance.api.engine.packets;
 
-public interface PacketBuilder {
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Collects the packets queued for a single viewer during one engine tick, so they can be
+ * written as one group and flushed once.
+ * <p>
+ * Removals are merged into a single packet sent ahead of every other queued packet.
+ * Removing an entity also drops the packets still queued for it in the same tick.
+ *
+ * @param <APacket> The packet type of the runtime.
+ */
+public interface PacketBuilder<APacket> {
+
+    /**
+     * Queues a packet for an entity.
+     *
+     * @param entityId The entity the packet targets.
+     * @param type     The kind of packet.
+     * @param packet   The packet to send.
+     */
+    void add(int entityId, @NotNull PacketType type, @NotNull APacket packet);
+
+    /**
+     * Queues the removal of an entity.
+     *
+     * @param entityId The entity to remove.
+     */
+    void remove(int entityId);
+
+    /**
+     * Checks whether nothing is queued.
+     *
+     * @return {@code true} if there is nothing to send, {@code false} otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Gets the number of queued packets, counting all removals as one.
+     *
+     * @return The queued packet count.
+     */
+    int size();
+
+    /**
+     * Drops every queued packet without sending it.
+     */
+    void clear();
+
 }
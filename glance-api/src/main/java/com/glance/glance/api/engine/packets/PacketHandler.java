@@ -1,4 +1,63 @@
 package com.glance.glance.api.engine.packets;
 
-public interface PacketHandler {
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Owns the outbound {@link PacketBuilder} queue of every viewer and writes them out once per tick.
+ *
+ * @param <AViewer> The viewer type of the runtime.
+ * @param <APacket> The packet type of the runtime.
+ */
+public interface PacketHandler<AViewer, APacket> {
+
+    /**
+     * Gets the queue of a viewer for the current tick, creating it if needed.
+     *
+     * @param viewer The viewer.
+     * @return The viewer's packet builder.
+     */
+    @NotNull
+    PacketBuilder<APacket> getBuilder(@NotNull AViewer viewer);
+
+    /**
+     * Queues a packet for a viewer.
+     *
+     * @param viewer   The viewer.
+     * @param entityId The entity the packet targets.
+     * @param type     The kind of packet.
+     * @param packet   The packet to send.
+     */
+    default void queue(@NotNull AViewer viewer, int entityId, @NotNull PacketType type, @NotNull APacket packet) {
+        getBuilder(viewer).add(entityId, type, packet);
+    }
+
+    /**
+     * Queues the removal of an entity for a viewer.
+     *
+     * @param viewer   The viewer.
+     * @param entityId The entity to remove.
+     */
+    default void queueRemove(@NotNull AViewer viewer, int entityId) {
+        getBuilder(viewer).remove(entityId);
+    }
+
+    /**
+     * Writes everything queued for a viewer as one group and flushes its connection once.
+     *
+     * @param viewer The viewer.
+     */
+    void flush(@NotNull AViewer viewer);
+
+    /**
+     * Flushes the queue of every viewer.
+     */
+    void flushAll();
+
+    /**
+     * Drops the queue of a viewer, for example once it disconnected.
+     *
+     * @param viewer The viewer.
+     */
+    void discard(@NotNull AViewer viewer);
+
 }
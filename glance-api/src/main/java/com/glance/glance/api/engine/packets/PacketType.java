@@ -1,4 +1,33 @@
 package com.glance.glance.api.engine.packets;
 
+/**
+ * The kinds of packets an engine sends to keep a viewer's copy of a model in sync.
+ */
 public enum PacketType {
+
+    /**
+     * Spawns a model for a viewer, along with its full metadata.
+     */
+    SPAWN,
+
+    /**
+     * Updates the changed metadata entries of a model.
+     */
+    METADATA,
+
+    /**
+     * Moves a model to its absolute position.
+     */
+    TELEPORT,
+
+    /**
+     * Moves a model by a small offset from its last sent position.
+     */
+    MOVE,
+
+    /**
+     * Removes a model from a viewer.
+     */
+    REMOVE
+
 }
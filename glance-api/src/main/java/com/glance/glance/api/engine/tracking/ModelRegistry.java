@@ -0,0 +1,137 @@
+package com.glance.glance.api.engine.tracking;
+
+import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.utils.Validation;
+import com.glance.glance.api.utils.collections.IntObjectMap;
+import com.glance.glance.api.utils.collections.UuidObjectMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * The tracked models of an engine, indexed by unique id and by entity id.
+ * <p>
+ * Writes are expected from the thread owning the engine. Lookups may be made from any thread,
+ * e.g. a network thread resolving the target of an interaction, and neither lock nor allocate
+ * unless they race with a write.
+ *
+ * @param <T> The type of the models.
+ */
+public final class ModelRegistry<T extends GlanceModel> {
+
+    private final StampedLock lock = new StampedLock();
+    private final UuidObjectMap<T> byUniqueId = new UuidObjectMap<>();
+    private final IntObjectMap<T> byEntityId = new IntObjectMap<>();
+
+    /**
+     * Registers a model under its unique id and current entity id. The entity id
+     * must not change while the model is registered.
+     *
+     * @param model The model to register.
+     * @return {@code true} if the model was added, {@code false} if its unique id was already registered.
+     */
+    public boolean register(@NotNull T model) {
+        Validation.checkNotNull(model, "model");
+        long stamp = this.lock.writeLock();
+        try {
+            if (this.byUniqueId.containsKey(model.getUniqueId())) {
+                return false;
+            }
+            this.byUniqueId.put(model.getUniqueId(), model);
+            this.byEntityId.put(model.getEntityId(), model);
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Unregisters a model.
+     *
+     * @param uniqueId The unique id of the model.
+     * @return The removed model, or {@code null} if none was registered.
+     */
+    @Nullable
+    public T unregister(@NotNull UUID uniqueId) {
+        Validation.checkNotNull(uniqueId, "uniqueId");
+        long stamp = this.lock.writeLock();
+        try {
+            T model = this.byUniqueId.remove(uniqueId);
+            if (model != null) {
+                this.byEntityId.remove(model.getEntityId());
+            }
+            return model;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Nullable
+    public T get(@NotNull UUID uniqueId) {
+        return get(uniqueId.getMostSignificantBits(), uniqueId.getLeastSignificantBits());
+    }
+
+    /**
+     * Looks up a model by the two halves of its unique id.
+     *
+     * @param mostBits  The most significant bits of the unique id.
+     * @param leastBits The least significant bits of the unique id.
+     * @return The model, or {@code null} if none is registered.
+     */
+    @Nullable
+    public T get(long mostBits, long leastBits) {
+        long stamp = this.lock.tryOptimisticRead();
+        T model = this.byUniqueId.get(mostBits, leastBits);
+        if (this.lock.validate(stamp)) {
+            return model;
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.byUniqueId.get(mostBits, leastBits);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Looks up a model by the entity id it is spawned with.
+     *
+     * @param entityId The entity id.
+     * @return The model, or {@code null} if none is registered.
+     */
+    @Nullable
+    public T getByEntityId(int entityId) {
+        long stamp = this.lock.tryOptimisticRead();
+        T model = this.byEntityId.get(entityId);
+        if (this.lock.validate(stamp)) {
+            return model;
+        }
+        stamp = this.lock.readLock();
+        try {
+            return this.byEntityId.get(entityId);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean contains(@NotNull UUID uniqueId) {
+        return get(uniqueId) != null;
+    }
+
+    public int size() {
+        return this.byUniqueId.size();
+    }
+
+    /**
+     * Visits every registered model. Must be called from the thread owning the registry.
+     *
+     * @param action The action to run for each model.
+     */
+    public void forEach(@NotNull Consumer<? super T> action) {
+        this.byUniqueId.forEach(action);
+    }
+
+}
@@ -0,0 +1,291 @@
+package com.glance.glance.api.engine.tracking;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * A spatial hash bucketing values by the 16x16x16 chunk section they are positioned in.
+ * <p>
+ * Each section remembers the largest view radius of the values it holds, so a range query only
+ * visits sections that could contain a value visible from the query point. Radii shrink again as
+ * values leave or narrow their range. Moving a value only touches the index when it crosses into
+ * a different section, and removals are constant time.
+ * <p>
+ * This index is not thread-safe; it is expected to be owned by the engine's tick thread.
+ *
+ * @param <T> The type of the indexed values, compared by identity.
+ */
+public final class SectionIndex<T> {
+
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+
+    private final Map<Long, Section<T>> sections = new HashMap<>();
+    private final List<Section<T>> populated = new ArrayList<>();
+    private final Map<T, Entry<T>> locations = new IdentityHashMap<>();
+    // Number of values per view radius, the largest key bounds every query
+    private final NavigableMap<Float, Integer> radii = new TreeMap<>();
+
+    /**
+     * Inserts or moves a value in the index.
+     *
+     * @param value    The value to index.
+     * @param position The world position of the value.
+     * @param radius   The distance, in blocks, the value is visible from.
+     * @return {@code true} if the value was inserted or moved to another section, {@code false} otherwise.
+     */
+    public boolean update(@NotNull T value, @NotNull Vector3f position, float radius) {
+        Validation.checkNotNull(value, "value");
+        Validation.checkNotNull(position, "position");
+        int sectionX = toSection(position.x);
+        int sectionY = toSection(position.y);
+        int sectionZ = toSection(position.z);
+        long key = pack(sectionX, sectionY, sectionZ);
+
+        Entry<T> entry = this.locations.get(value);
+        if (entry == null) {
+            entry = new Entry<>(value, radius);
+            this.locations.put(value, entry);
+            count(radius);
+        } else {
+            float previous = entry.radius;
+            if (previous != radius) {
+                uncount(previous);
+                count(radius);
+                entry.radius = radius;
+            }
+            if (entry.section.key == key) {
+                Section<T> section = entry.section;
+                if (radius > section.radius) {
+                    section.radius = radius;
+                } else if (previous == section.radius && radius < previous) {
+                    section.updateRadius();
+                }
+                return false;
+            }
+            detach(entry, previous);
+        }
+
+        Section<T> next = this.sections.get(key);
+        if (next == null) {
+            next = new Section<>(key, sectionX, sectionY, sectionZ);
+            this.sections.put(key, next);
+            next.index = this.populated.size();
+            this.populated.add(next);
+        }
+        entry.section = next;
+        entry.index = next.entries.size();
+        next.entries.add(entry);
+        next.radius = Math.max(next.radius, radius);
+        return true;
+    }
+
+    /**
+     * Removes a value from the index.
+     *
+     * @param value The value to remove.
+     * @return {@code true} if the value was indexed, {@code false} otherwise.
+     */
+    public boolean remove(@NotNull T value) {
+        Entry<T> entry = this.locations.remove(value);
+        if (entry == null) {
+            return false;
+        }
+        uncount(entry.radius);
+        detach(entry, entry.radius);
+        return true;
+    }
+
+    /**
+     * Checks whether a value is indexed.
+     *
+     * @param value The value to check.
+     * @return {@code true} if the value is indexed, {@code false} otherwise.
+     */
+    public boolean contains(@NotNull T value) {
+        return this.locations.containsKey(value);
+    }
+
+    /**
+     * Gets the number of indexed values.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return this.locations.size();
+    }
+
+    /**
+     * Visits every value in a section close enough to the given point to be visible from it.
+     * <p>
+     * This is a broad phase; callers still have to check each value's exact distance.
+     *
+     * @param center The query point.
+     * @param action The action to run for each candidate value.
+     */
+    public void query(@NotNull Vector3f center, @NotNull Consumer<? super T> action) {
+        if (this.populated.isEmpty()) {
+            return;
+        }
+        float maxRadius = this.radii.lastKey();
+        int minX = toSection(center.x - maxRadius), maxX = toSection(center.x + maxRadius);
+        int minY = toSection(center.y - maxRadius), maxY = toSection(center.y + maxRadius);
+        int minZ = toSection(center.z - maxRadius), maxZ = toSection(center.z + maxRadius);
+        long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        // Large view ranges span more sections than actually exist, walk the populated ones instead
+        if (volume > this.populated.size()) {
+            for (int i = 0; i < this.populated.size(); i++) {
+                visit(this.populated.get(i), center, action);
+            }
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    Section<T> section = this.sections.get(pack(x, y, z));
+                    if (section != null) {
+                        visit(section, center, action);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every value from the index.
+     */
+    public void clear() {
+        this.sections.clear();
+        this.populated.clear();
+        this.locations.clear();
+        this.radii.clear();
+    }
+
+    private void visit(Section<T> section, Vector3f center, Consumer<? super T> action) {
+        if (section.distanceSquared(center) > section.radius * section.radius) {
+            return;
+        }
+        List<Entry<T>> entries = section.entries;
+        for (int i = 0; i < entries.size(); i++) {
+            action.accept(entries.get(i).value);
+        }
+    }
+
+    /**
+     * Swap-removes an entry from its section, dropping the section once empty.
+     *
+     * @param entry  The entry to remove.
+     * @param radius The radius the entry was indexed with.
+     */
+    private void detach(Entry<T> entry, float radius) {
+        Section<T> section = entry.section;
+        swapRemove(section.entries, entry.index).index = entry.index;
+        entry.section = null;
+        if (section.entries.isEmpty()) {
+            this.sections.remove(section.key);
+            swapRemove(this.populated, section.index).index = section.index;
+        } else if (radius == section.radius) {
+            // The leaving entry may have been the farthest visible, shrink to the remaining ones
+            section.updateRadius();
+        }
+    }
+
+    private void count(float radius) {
+        this.radii.merge(radius, 1, Integer::sum);
+    }
+
+    private void uncount(float radius) {
+        this.radii.computeIfPresent(radius, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Moves the last element of a list into the slot of a removed one.
+     *
+     * @param list  The list.
+     * @param index The index of the element to remove.
+     * @return The element now at that index, or the removed element if it was the last.
+     */
+    private static <E> E swapRemove(List<E> list, int index) {
+        E moved = list.remove(list.size() - 1);
+        if (index < list.size()) {
+            list.set(index, moved);
+        }
+        return moved;
+    }
+
+    private static int toSection(float coordinate) {
+        return ((int) Math.floor(coordinate)) >> SECTION_SHIFT;
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFF) << 42) | ((long) (z & 0x3FFFFF) << 20) | (long) (y & 0xFFFFF);
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private float radius;
+        private Section<T> section;
+        // Position in the section's entries
+        private int index;
+
+        private Entry(T value, float radius) {
+            this.value = value;
+            this.radius = radius;
+        }
+
+    }
+
+    private static final class Section<T> {
+
+        private final long key;
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final List<Entry<T>> entries = new ArrayList<>();
+        private float radius = 0.0F;
+        // Position in the populated sections
+        private int index;
+
+        private Section(long key, int sectionX, int sectionY, int sectionZ) {
+            this.key = key;
+            this.minX = sectionX << SECTION_SHIFT;
+            this.minY = sectionY << SECTION_SHIFT;
+            this.minZ = sectionZ << SECTION_SHIFT;
+        }
+
+        private void updateRadius() {
+            float radius = 0.0F;
+            for (int i = 0; i < this.entries.size(); i++) {
+                radius = Math.max(radius, this.entries.get(i).radius);
+            }
+            this.radius = radius;
+        }
+
+        private float distanceSquared(Vector3f point) {
+            float dx = axisDistance(point.x, this.minX);
+            float dy = axisDistance(point.y, this.minY);
+            float dz = axisDistance(point.z, this.minZ);
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        private static float axisDistance(float point, int min) {
+            if (point < min) return min - point;
+            if (point > min + SECTION_SIZE) return point - (min + SECTION_SIZE);
+            return 0.0F;
+        }
+
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.glance.glance.api.engine.tracking;
+
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+/**
+ * Conservative visibility test of a model's culling box against a viewer's line of sight.
+ * <p>
+ * The exact client frustum depends on its field of view and aspect ratio, so a cone wider than any
+ * sensible horizontal field of view is used instead. A box is only reported hidden when its bounding
+ * sphere lies entirely outside that cone, i.e. behind or far to the side of the viewer.
+ */
+public final class ViewCone {
+
+    private ViewCone() {}
+
+    /**
+     * Half the opening angle of the view cone, in radians.
+     */
+    public static final float HALF_ANGLE = (float) Math.toRadians(80.0);
+    private static final float COS_HALF_ANGLE = (float) Math.cos(HALF_ANGLE);
+    private static final float SIN_HALF_ANGLE = (float) Math.sin(HALF_ANGLE);
+
+    /**
+     * Checks whether a culling box may be visible to a viewer.
+     * The box spans {@code width / 2} horizontally around the position, and {@code height} upwards from it.
+     *
+     * @param eye       The eye position of the viewer.
+     * @param direction The normalized look direction of the viewer.
+     * @param position  The position of the box.
+     * @param width     The width of the box.
+     * @param height    The height of the box.
+     * @return {@code true} if the box may be visible, {@code false} if it is certainly out of view.
+     */
+    public static boolean isVisible(@NotNull Vector3f eye, @NotNull Vector3f direction, @NotNull Vector3f position, float width, float height) {
+        float x = position.x - eye.x;
+        float y = position.y + height * 0.5F - eye.y;
+        float z = position.z - eye.z;
+        float distanceSquared = x * x + y * y + z * z;
+        float radiusSquared = width * width * 0.5F + height * height * 0.25F;
+        if (distanceSquared <= radiusSquared) {
+            return true;
+        }
+        // Widen the cone by the angle the bounding sphere covers from the eye
+        float distance = (float) Math.sqrt(distanceSquared);
+        float sin = (float) Math.sqrt(radiusSquared) / distance;
+        float cos = (float) Math.sqrt(1.0F - sin * sin);
+        float dot = x * direction.x + y * direction.y + z * direction.z;
+        return dot >= distance * (COS_HALF_ANGLE * cos - SIN_HALF_ANGLE * sin);
+    }
+
+}
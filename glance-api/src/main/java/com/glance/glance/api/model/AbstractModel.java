@@ -4,16 +4,47 @@ import com.glance.glance.api.model.properties.*;
 import com.glance.glance.api.utils.Validation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 
+/**
+ * The base of every model, holding the properties shared by all display types.
+ * <p>
+ * Setters may be called from any thread. They write the staged properties of the model, under
+ * a per-model sequence lock, which the engine publishes as a {@link ModelState} when updating
+ * the model. Setters writing several fields are applied as one, and {@link #edit(Consumer)}
+ * applies any number of changes as one.
+ */
 public abstract class AbstractModel implements GlanceModel {
 
     protected int entityId;
     private final UUID uniqueId = UUID.randomUUID();
-    protected boolean dirty = false;
+    protected int dirtyMask = 0;
+    private long generation = 0;
+
+    // Set while this model waits in its dirty queue
+    private static final AtomicIntegerFieldUpdater<AbstractModel> QUEUED =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractModel.class, "queued");
+    @Nullable
+    volatile DirtyQueue<?> dirtyQueue;
+    private volatile int queued;
+
+    // Sequence lock over the staged properties, odd while a producer writes them
+    private static final AtomicIntegerFieldUpdater<AbstractModel> SEQUENCE =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractModel.class, "sequence");
+    private static final int SPINS_BEFORE_YIELD = 64;
+    // Attempts of the engine to take the lock before it leaves the model for the next update,
+    // the last ones yield so a preempted producer can finish its edit
+    private static final int PUBLISH_ATTEMPTS = SPINS_BEFORE_YIELD + 8;
+    private volatile int sequence;
+    // The thread holding the lock, making edits reentrant
+    @Nullable
+    private Thread writer;
+    private final ModelState state = new ModelState();
 
     protected Vector3f absolutePosition = new Vector3f();
 
@@ -21,6 +52,8 @@ public abstract class AbstractModel implements GlanceModel {
     protected float viewRange = 1.0F;
     protected float shadowRadius = 0.0f;
     protected float shadowStrength = 1.0f;
+    protected LevelOfDetail levelOfDetail = LevelOfDetail.DEFAULT;
+    protected int updatePriority = 0;
 
     // Lighting and Culling
     protected int blockLight = 15;
@@ -32,6 +65,17 @@ public abstract class AbstractModel implements GlanceModel {
     protected Billboard billboard = Billboard.FIXED;
     protected Color glowColor = Color.transparent();
     protected Transform transform = Transform.identity();
+    private final Matrix4f matrixScratch = new Matrix4f();
+
+    // Records handed out by the getters, reused while the fields they were built from are unchanged
+    private Shadow shadowRecord;
+    private Culling cullingRecord;
+    private Brightness brightnessRecord;
+    private Interpolation interpolationRecord;
+
+    // Nesting depth of the current edit, and the flags marked during it. Guarded by the sequence lock
+    private int editDepth;
+    private int editFlags;
 
     // Interpolation and Animation
     protected int interpolationDelay = 0;
@@ -39,7 +83,192 @@ public abstract class AbstractModel implements GlanceModel {
     protected int teleportDuration = 0;
 
     protected void markDirty() {
-        this.dirty = true;
+        markDirty(DirtyFlags.ALL);
+    }
+
+    /**
+     * Flags properties of this model as changed since the last update.
+     *
+     * @param flags The {@link DirtyFlags} of the changed properties.
+     */
+    protected void markDirty(int flags) {
+        beginEdit();
+        this.editFlags |= flags;
+        endEdit();
+    }
+
+    /**
+     * Starts an edit, locking out other producers and the engine until the matching
+     * {@link #endEdit()}. Changes made during the edit are published as one change of this
+     * model. Edits may be nested, and must begin and end on the same thread.
+     */
+    public void beginEdit() {
+        Thread current = Thread.currentThread();
+        if (this.writer == current) {
+            this.editDepth++;
+            return;
+        }
+        int spins = 0;
+        while (true) {
+            int sequence = this.sequence;
+            if ((sequence & 1) == 0 && SEQUENCE.compareAndSet(this, sequence, sequence + 1)) {
+                break;
+            }
+            spins = spin(spins);
+        }
+        this.writer = current;
+        this.editDepth = 1;
+    }
+
+    /**
+     * Ends an edit, staging its changes once the outermost edit ends.
+     *
+     * @throws IllegalStateException if no edit is in progress on this thread.
+     */
+    public void endEdit() {
+        Validation.check(this.writer == Thread.currentThread(), "No edit in progress on this thread");
+        if (--this.editDepth > 0) {
+            return;
+        }
+        int flags = this.editFlags;
+        this.editFlags = 0;
+        if (flags != 0) {
+            this.dirtyMask |= flags;
+            this.generation++;
+        }
+        this.writer = null;
+        this.sequence++;
+        if (flags != 0) {
+            enqueueDirty();
+        }
+    }
+
+    /**
+     * Publishes the staged properties into the {@link ModelState} of this model. The copy is taken
+     * under the sequence lock, so it is never torn, but the engine never waits on a producer:
+     * while one holds the model, publishing is skipped and the model is queued again for the
+     * next update, with its changes still pending.
+     *
+     * @return The {@link DirtyFlags} of the properties changed since the last publish, or
+     * {@code 0} if publishing was skipped.
+     * @throws IllegalStateException if this thread is editing the model.
+     */
+    protected int publish() {
+        Validation.check(this.writer != Thread.currentThread(), "Cannot publish a model while editing it");
+        for (int attempt = 0; attempt < PUBLISH_ATTEMPTS; attempt++) {
+            int sequence = this.sequence;
+            if ((sequence & 1) != 0 || !SEQUENCE.compareAndSet(this, sequence, sequence + 1)) {
+                spin(attempt);
+                continue;
+            }
+            this.state.copyFrom(this);
+            snapshot();
+            int mask = this.dirtyMask;
+            this.dirtyMask = 0;
+            this.state.changed = mask;
+            this.state.generation = this.generation;
+            this.sequence = sequence + 2;
+            return mask;
+        }
+        // A producer is still editing, possibly running a slow callback. Picked up next update
+        enqueueDirty();
+        return 0;
+    }
+
+    /**
+     * Copies the staged properties declared by a subclass into the fields it encodes from. Called
+     * under the sequence lock while a snapshot is published, so it must only copy fields.
+     */
+    protected void snapshot() {
+    }
+
+    /**
+     * Gets the properties of this model as last published. Only read by the engine.
+     *
+     * @return The published snapshot.
+     */
+    @NotNull
+    public ModelState getState() {
+        return this.state;
+    }
+
+    private static int spin(int spins) {
+        if (spins < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+        return spins + 1;
+    }
+
+    @Override
+    public GlanceModel edit(@NotNull Consumer<? super GlanceModel> editor) {
+        beginEdit();
+        try {
+            editor.accept(this);
+        } finally {
+            endEdit();
+        }
+        return this;
+    }
+
+    void enqueueDirty() {
+        DirtyQueue<?> queue = this.dirtyQueue;
+        if (queue != null && this.queued == 0 && QUEUED.compareAndSet(this, 0, 1)) {
+            queue.offer(this);
+        }
+    }
+
+    void clearQueued() {
+        this.queued = 0;
+    }
+
+    /**
+     * Publishes the staged properties, and gets the properties changed since the last update.
+     *
+     * @return The {@link DirtyFlags} mask.
+     * @see #publish()
+     */
+    protected int consumeDirty() {
+        return publish();
+    }
+
+    /**
+     * Gets the properties changed since the last update, without clearing them.
+     *
+     * @return The {@link DirtyFlags} mask.
+     */
+    public int getDirtyMask() {
+        return this.dirtyMask;
+    }
+
+    /**
+     * Checks whether any property changed since the last update.
+     *
+     * @return {@code true} if this model has pending changes, {@code false} otherwise.
+     */
+    public boolean isDirty() {
+        return this.dirtyMask != 0;
+    }
+
+    /**
+     * Checks whether any of the given properties changed since the last update.
+     *
+     * @param flags The {@link DirtyFlags} to check.
+     * @return {@code true} if any of the properties has pending changes, {@code false} otherwise.
+     */
+    public boolean isDirty(int flags) {
+        return DirtyFlags.has(this.dirtyMask, flags);
+    }
+
+    /**
+     * Gets the change generation of this model, incremented on every change to its properties.
+     * State derived from this model can be cached for as long as the generation stays the same.
+     *
+     * @return The change generation.
+     */
+    public long getGeneration() {
+        return this.generation;
     }
 
     protected abstract void updateDirty();
@@ -61,28 +290,60 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setViewRange(float viewRange) {
+        beginEdit();
         this.viewRange = viewRange;
-        markDirty();
+        markDirty(DirtyFlags.VIEW_RANGE);
+        endEdit();
+    }
+
+    @Override
+    public @NotNull LevelOfDetail getLevelOfDetail() {
+        return this.levelOfDetail;
+    }
+
+    @Override
+    public void setLevelOfDetail(@NotNull LevelOfDetail levelOfDetail) {
+        // Only read by the engine when scheduling updates, nothing is sent to viewers
+        this.levelOfDetail = Validation.checkNotNull(levelOfDetail, "level of detail record");
+    }
+
+    @Override
+    public int getUpdatePriority() {
+        return this.updatePriority;
+    }
+
+    @Override
+    public void setUpdatePriority(int priority) {
+        this.updatePriority = priority;
     }
 
     @Override
     public @NotNull Shadow getShadow() {
-        return new Shadow(this.shadowRadius, this.shadowStrength);
+        Shadow shadow = this.shadowRecord;
+        if (shadow == null || shadow.shadowRadius() != this.shadowRadius || shadow.shadowStrength() != this.shadowStrength) {
+            shadow = this.shadowRecord = new Shadow(this.shadowRadius, this.shadowStrength);
+        }
+        return shadow;
     }
 
     @Override
     public void setShadow(@NotNull Shadow shadow) {
         Validation.checkNotNull(shadow, "shadow record");
+        beginEdit();
         this.shadowRadius = shadow.shadowRadius();
         this.shadowStrength = shadow.shadowStrength();
-        markDirty();
+        this.shadowRecord = shadow;
+        markDirty(DirtyFlags.SHADOW);
+        endEdit();
     }
 
     @Override
     public void setShadow(float radius, float strength) {
+        beginEdit();
         this.shadowRadius = radius;
         this.shadowStrength = strength;
-        markDirty();
+        markDirty(DirtyFlags.SHADOW);
+        endEdit();
     }
 
     @Override
@@ -92,8 +353,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setShadowRadius(float radius) {
+        beginEdit();
         this.shadowRadius = radius;
-        markDirty();
+        markDirty(DirtyFlags.SHADOW_RADIUS);
+        endEdit();
     }
 
     @Override
@@ -103,28 +366,39 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setShadowStrength(float strength) {
+        beginEdit();
         this.shadowStrength = strength;
-        markDirty();
+        markDirty(DirtyFlags.SHADOW_STRENGTH);
+        endEdit();
     }
 
     @Override
     public @NotNull Culling getCulling() {
-        return new Culling(this.cullingWidth, this.cullingHeight);
+        Culling culling = this.cullingRecord;
+        if (culling == null || culling.width() != this.cullingWidth || culling.height() != this.cullingHeight) {
+            culling = this.cullingRecord = new Culling(this.cullingWidth, this.cullingHeight);
+        }
+        return culling;
     }
 
     @Override
     public void setCulling(@NotNull Culling culling) {
         Validation.checkNotNull(culling, "culling record");
+        beginEdit();
         this.cullingWidth = culling.width();
         this.cullingHeight = culling.height();
-        markDirty();
+        this.cullingRecord = culling;
+        markDirty(DirtyFlags.CULLING);
+        endEdit();
     }
 
     @Override
     public void setCulling(float cullingWidth, float cullingHeight) {
+        beginEdit();
         this.cullingWidth = cullingWidth;
         this.cullingHeight = cullingHeight;
-        markDirty();
+        markDirty(DirtyFlags.CULLING);
+        endEdit();
     }
 
     @Override
@@ -134,8 +408,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setCullingWidth(float width) {
+        beginEdit();
         this.cullingWidth = width;
-        markDirty();
+        markDirty(DirtyFlags.CULLING);
+        endEdit();
     }
 
     @Override
@@ -145,8 +421,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setCullingHeight(float height) {
+        beginEdit();
         this.cullingHeight = height;
-        markDirty();
+        markDirty(DirtyFlags.CULLING);
+        endEdit();
     }
 
     @Override
@@ -157,28 +435,39 @@ public abstract class AbstractModel implements GlanceModel {
     @Override
     public void setBillboard(@NotNull Billboard billboard) {
         Validation.checkNotNull(billboard, "billboard");
+        beginEdit();
         this.billboard = billboard;
-        markDirty();
+        markDirty(DirtyFlags.BILLBOARD);
+        endEdit();
     }
 
     @Override
     public @NotNull Brightness getBrightness() {
-        return new Brightness(this.blockLight, this.skyLight);
+        Brightness brightness = this.brightnessRecord;
+        if (brightness == null || brightness.blockLight() != this.blockLight || brightness.skyLight() != this.skyLight) {
+            brightness = this.brightnessRecord = new Brightness(this.blockLight, this.skyLight);
+        }
+        return brightness;
     }
 
     @Override
     public void setBrightness(@NotNull Brightness brightness) {
         Validation.checkNotNull(brightness, "brightness record");
+        beginEdit();
         this.blockLight = brightness.blockLight();
         this.skyLight = brightness.skyLight();
-        markDirty();
+        this.brightnessRecord = brightness;
+        markDirty(DirtyFlags.BRIGHTNESS);
+        endEdit();
     }
 
     @Override
     public void setBrightness(int blockLight, int skyLight) {
+        beginEdit();
         this.blockLight = blockLight;
         this.skyLight = skyLight;
-        markDirty();
+        markDirty(DirtyFlags.BRIGHTNESS);
+        endEdit();
     }
 
     @Override
@@ -188,8 +477,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setBlockLight(int blockLight) {
+        beginEdit();
         this.blockLight = blockLight;
-        markDirty();
+        markDirty(DirtyFlags.BRIGHTNESS);
+        endEdit();
     }
 
     @Override
@@ -199,8 +490,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setSkyLight(int skyLight) {
+        beginEdit();
         this.skyLight = skyLight;
-        markDirty();
+        markDirty(DirtyFlags.BRIGHTNESS);
+        endEdit();
     }
 
     @Override
@@ -212,22 +505,32 @@ public abstract class AbstractModel implements GlanceModel {
     @Override
     public void setGlowWithColor(@NotNull Color color) {
         Validation.checkNotNull(color, "glow color");
+        beginEdit();
         this.glowColor = color;
-        markDirty();
+        markDirty(DirtyFlags.GLOW);
+        endEdit();
     }
 
     @Override
     public @NotNull Interpolation getInterpolation() {
-        return new Interpolation(this.interpolationDelay, this.interpolationDuration, this.teleportDuration);
+        Interpolation interpolation = this.interpolationRecord;
+        if (interpolation == null || interpolation.delay() != this.interpolationDelay
+                || interpolation.duration() != this.interpolationDuration || interpolation.teleport() != this.teleportDuration) {
+            interpolation = this.interpolationRecord = new Interpolation(this.interpolationDelay, this.interpolationDuration, this.teleportDuration);
+        }
+        return interpolation;
     }
 
     @Override
     public void setInterpolation(@NotNull Interpolation interpolation) {
         Validation.checkNotNull(interpolation, "interpolation record");
+        beginEdit();
         this.interpolationDelay = interpolation.delay();
         this.interpolationDuration = interpolation.duration();
         this.teleportDuration = interpolation.teleport();
-        markDirty();
+        this.interpolationRecord = interpolation;
+        markDirty(DirtyFlags.INTERPOLATION);
+        endEdit();
     }
 
     @Override
@@ -237,8 +540,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setInterpolationDelay(int interpolationDelay) {
+        beginEdit();
         this.interpolationDelay = interpolationDelay;
-        markDirty();
+        markDirty(DirtyFlags.INTERPOLATION_DELAY);
+        endEdit();
     }
 
     @Override
@@ -248,8 +553,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setInterpolationDuration(int interpolationDuration) {
+        beginEdit();
         this.interpolationDuration = interpolationDuration;
-        markDirty();
+        markDirty(DirtyFlags.INTERPOLATION_DURATION);
+        endEdit();
     }
 
     @Override
@@ -259,8 +566,10 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public void setTeleportDuration(int teleportDuration) {
+        beginEdit();
         this.teleportDuration = teleportDuration;
-        markDirty();
+        markDirty(DirtyFlags.TELEPORT_DURATION);
+        endEdit();
     }
 
     @Override
@@ -271,8 +580,143 @@ public abstract class AbstractModel implements GlanceModel {
     @Override
     public void setTransform(@NotNull Transform transform) {
         Validation.checkNotNull(transform, "transform");
-        this.transform = transform;
-        markDirty();
+        beginEdit();
+        // Copied, the caller keeps its own transform
+        this.transform.set(transform);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+    }
+
+    /* Transform edits, overridden so each marks the model dirty once and allocates nothing */
+
+    @Override
+    public void setTransformationMatrix(@NotNull Matrix4f matrix) {
+        beginEdit();
+        this.transform.setFromMatrix(matrix);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+    }
+
+    @Override
+    public GlanceModel editTransform(@NotNull Consumer<Transform> editor) {
+        beginEdit();
+        try {
+            editor.accept(this.transform);
+            // The editor may have mutated the live components
+            this.transform.markChanged();
+            markDirty(DirtyFlags.TRANSFORM);
+        } finally {
+            endEdit();
+        }
+        return this;
+    }
+
+    @Override
+    public GlanceModel interpolateTransform(@NotNull Consumer<Transform> editor) {
+        return interpolateTransform(0, 1, editor);
+    }
+
+    @Override
+    public GlanceModel interpolateTransform(int duration, @NotNull Consumer<Transform> editor) {
+        return interpolateTransform(0, duration, editor);
+    }
+
+    @Override
+    public GlanceModel interpolateTransform(int delay, int duration, @NotNull Consumer<Transform> editor) {
+        beginEdit();
+        try {
+            this.interpolationDelay = delay;
+            this.interpolationDuration = duration;
+            editor.accept(this.transform);
+            this.transform.markChanged();
+            markDirty(DirtyFlags.INTERPOLATION_DELAY | DirtyFlags.INTERPOLATION_DURATION | DirtyFlags.TRANSFORM);
+        } finally {
+            endEdit();
+        }
+        return this;
+    }
+
+    @Override
+    public GlanceModel editMatrix(@NotNull Consumer<Matrix4f> editor) {
+        beginEdit();
+        try {
+            // Edited in place, the transform is decomposed back into its own components
+            editor.accept(this.transform.getMatrix(this.matrixScratch));
+            setTransformationMatrix(this.matrixScratch);
+        } finally {
+            endEdit();
+        }
+        return this;
+    }
+
+    @Override
+    public GlanceModel interpolateMatrix(@NotNull Consumer<Matrix4f> editor) {
+        return interpolateMatrix(0, 1, editor);
+    }
+
+    @Override
+    public GlanceModel interpolateMatrix(int duration, @NotNull Consumer<Matrix4f> editor) {
+        return interpolateMatrix(0, duration, editor);
+    }
+
+    @Override
+    public GlanceModel interpolateMatrix(int delay, int duration, @NotNull Consumer<Matrix4f> editor) {
+        beginEdit();
+        try {
+            this.interpolationDelay = delay;
+            this.interpolationDuration = duration;
+            editor.accept(this.transform.getMatrix(this.matrixScratch));
+            this.transform.setFromMatrix(this.matrixScratch);
+            markDirty(DirtyFlags.INTERPOLATION_DELAY | DirtyFlags.INTERPOLATION_DURATION | DirtyFlags.TRANSFORM);
+        } finally {
+            endEdit();
+        }
+        return this;
+    }
+
+    @Override
+    public GlanceModel scale(float scale) {
+        beginEdit();
+        this.transform.scale(scale);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+        return this;
+    }
+
+    @Override
+    public GlanceModel scale(float x, float y, float z) {
+        beginEdit();
+        this.transform.scale(x, y, z);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+        return this;
+    }
+
+    @Override
+    public GlanceModel translate(float x, float y, float z) {
+        beginEdit();
+        this.transform.translate(x, y, z);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+        return this;
+    }
+
+    @Override
+    public GlanceModel rotateLeft(float angle, float axisX, float axisY, float axisZ) {
+        beginEdit();
+        this.transform.rotateLeft(angle, axisX, axisY, axisZ);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+        return this;
+    }
+
+    @Override
+    public GlanceModel rotateRight(float angle, float axisX, float axisY, float axisZ) {
+        beginEdit();
+        this.transform.rotateRight(angle, axisX, axisY, axisZ);
+        markDirty(DirtyFlags.TRANSFORM);
+        endEdit();
+        return this;
     }
 
     /* Positions */
@@ -289,29 +733,31 @@ public abstract class AbstractModel implements GlanceModel {
 
     @Override
     public GlanceModel renderAt(@NotNull Vector3f position, int duration, @Nullable Consumer<Transform> extraAction) {
-        Vector3f delta = position.sub(this.getAbsolutePosition());
-        interpolateTransform(duration, t -> {
-            t.translate(delta);
+        Validation.checkNotNull(position, "position");
+        return interpolateTransform(duration, t -> {
+            offsetTo(t, position);
             if (extraAction != null) extraAction.accept(t);
         });
-        return this;
     }
 
     @Override
     public GlanceModel renderAt(@NotNull Vector3f position, @Nullable Consumer<Transform> extraAction) {
-        Vector3f delta = position.sub(this.getAbsolutePosition());
-        interpolateTransform(t -> {
-            t.translate(delta);
+        Validation.checkNotNull(position, "position");
+        return interpolateTransform(t -> {
+            offsetTo(t, position);
             if (extraAction != null) extraAction.accept(t);
         });
-        return this;
     }
 
     @Override
     public GlanceModel renderAt(@NotNull Vector3f position) {
-        Vector3f delta = position.sub(this.getAbsolutePosition());
-        translate(delta);
-        return this;
+        Validation.checkNotNull(position, "position");
+        return editTransform(t -> offsetTo(t, position));
+    }
+
+    // Set rather than added, so rendering at the same position again leaves the offset unchanged
+    private void offsetTo(Transform transform, Vector3f position) {
+        transform.editTranslation(translation -> translation.set(position).sub(this.absolutePosition));
     }
 
 }
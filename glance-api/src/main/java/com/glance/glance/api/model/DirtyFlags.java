@@ -0,0 +1,61 @@
+package com.glance.glance.api.model;
+
+/**
+ * Bit flags identifying which properties of a model changed since its last update.
+ * <p>
+ * Each flag maps to one or more entries of the display entity metadata, letting runtimes
+ * encode only the entries that actually changed.
+ */
+public final class DirtyFlags {
+
+    private DirtyFlags() {}
+
+    /* Render properties */
+    public static final int VIEW_RANGE = 1;
+    public static final int SHADOW_RADIUS = 1 << 1;
+    public static final int SHADOW_STRENGTH = 1 << 2;
+    public static final int BRIGHTNESS = 1 << 3;
+    public static final int BILLBOARD = 1 << 4;
+    public static final int GLOW = 1 << 5;
+    public static final int CULLING = 1 << 6;
+
+    /* Interpolation */
+    public static final int INTERPOLATION_DELAY = 1 << 7;
+    public static final int INTERPOLATION_DURATION = 1 << 8;
+    public static final int TELEPORT_DURATION = 1 << 9;
+
+    /* Transform parts */
+    public static final int TRANSLATION = 1 << 10;
+    public static final int LEFT_ROTATION = 1 << 11;
+    public static final int SCALE = 1 << 12;
+    public static final int RIGHT_ROTATION = 1 << 13;
+
+    /* Type specific data */
+    public static final int PAYLOAD = 1 << 14;
+    public static final int ITEM_VIEW = 1 << 15;
+    public static final int TEXT_LINE_WIDTH = 1 << 16;
+    public static final int TEXT_BACKGROUND = 1 << 17;
+    public static final int TEXT_OPACITY = 1 << 18;
+    public static final int TEXT_STYLE = 1 << 19;
+
+    /* Entity */
+    public static final int POSITION = 1 << 20;
+
+    /* Groups */
+    public static final int SHADOW = SHADOW_RADIUS | SHADOW_STRENGTH;
+    public static final int INTERPOLATION = INTERPOLATION_DELAY | INTERPOLATION_DURATION | TELEPORT_DURATION;
+    public static final int TRANSFORM = TRANSLATION | LEFT_ROTATION | SCALE | RIGHT_ROTATION;
+    public static final int ALL = (1 << 21) - 1;
+
+    /**
+     * Checks whether a mask contains any of the given flags.
+     *
+     * @param mask  The dirty mask.
+     * @param flags The flags to look for.
+     * @return {@code true} if any flag is set, {@code false} otherwise.
+     */
+    public static boolean has(int mask, int flags) {
+        return (mask & flags) != 0;
+    }
+
+}
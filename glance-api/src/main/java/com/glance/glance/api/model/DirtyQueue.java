@@ -0,0 +1,83 @@
+package com.glance.glance.api.model;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Collects the models changed since the last drain, so an update pass only visits models with
+ * pending changes.
+ * <p>
+ * An attached model enqueues itself the first time it is marked dirty after a drain. Models may
+ * be marked dirty from any thread, {@link #drain(Consumer)} must be called from a single one.
+ *
+ * @param <T> The type of the models.
+ */
+public final class DirtyQueue<T extends AbstractModel> {
+
+    private final Queue<AbstractModel> queue = new ConcurrentLinkedQueue<>();
+    private final List<AbstractModel> draining = new ArrayList<>();
+
+    /**
+     * Attaches a model to this queue. A model with pending changes is enqueued right away.
+     *
+     * @param model The model to attach.
+     */
+    public void attach(@NotNull T model) {
+        Validation.checkNotNull(model, "model");
+        model.dirtyQueue = this;
+        if (model.isDirty()) {
+            model.enqueueDirty();
+        }
+    }
+
+    /**
+     * Detaches a model from this queue. It is skipped if it is still waiting to be drained.
+     *
+     * @param model The model to detach.
+     */
+    public void detach(@NotNull T model) {
+        Validation.checkNotNull(model, "model");
+        if (model.dirtyQueue == this) {
+            model.dirtyQueue = null;
+        }
+    }
+
+    void offer(@NotNull AbstractModel model) {
+        this.queue.offer(model);
+    }
+
+    /**
+     * Removes every queued model and passes it to an action. Models marked dirty again by the
+     * action are queued for the next drain.
+     *
+     * @param action The action to run for each changed model.
+     * @return The number of models drained.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(@NotNull Consumer<? super T> action) {
+        AbstractModel model;
+        while ((model = this.queue.poll()) != null) {
+            // Cleared before the action runs, a change made during the pass enqueues the model again
+            model.clearQueued();
+            if (model.dirtyQueue == this) {
+                this.draining.add(model);
+            }
+        }
+        int drained = this.draining.size();
+        try {
+            for (int i = 0; i < drained; i++) {
+                action.accept((T) this.draining.get(i));
+            }
+        } finally {
+            this.draining.clear();
+        }
+        return drained;
+    }
+
+}
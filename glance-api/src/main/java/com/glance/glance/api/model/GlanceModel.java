@@ -32,6 +32,18 @@ public interface GlanceModel {
      */
     int getEntityId();
 
+    /**
+     * Applies several changes to the model as one. Viewers are notified of every change at once,
+     * instead of once per setter.
+     *
+     * @param editor A consumer applying the changes.
+     * @return This model.
+     */
+    default GlanceModel edit(@NotNull Consumer<? super GlanceModel> editor) {
+        editor.accept(this);
+        return this;
+    }
+
     /* Render Settings */
 
     /**
@@ -57,6 +69,54 @@ public interface GlanceModel {
         return this;
     }
 
+    /**
+     * Gets the level of detail settings of the model.
+     *
+     * @return The level of detail settings.
+     */
+    @NotNull
+    LevelOfDetail getLevelOfDetail();
+    /**
+     * Sets the level of detail settings of the model.
+     *
+     * @param levelOfDetail The new level of detail settings.
+     */
+    void setLevelOfDetail(@NotNull LevelOfDetail levelOfDetail);
+    /**
+     * Sets the level of detail settings and returns the model for chaining.
+     *
+     * @param levelOfDetail The new level of detail settings.
+     * @return This model.
+     */
+    default GlanceModel levelOfDetail(@NotNull LevelOfDetail levelOfDetail) {
+        setLevelOfDetail(levelOfDetail);
+        return this;
+    }
+
+    /**
+     * Gets the update priority of the model. When a viewer runs out of outbound budget,
+     * deferred updates of models with a higher priority are sent first.
+     *
+     * @return The update priority.
+     */
+    int getUpdatePriority();
+    /**
+     * Sets the update priority of the model.
+     *
+     * @param priority The new update priority. Defaults to 0.
+     */
+    void setUpdatePriority(int priority);
+    /**
+     * Sets the update priority and returns the model for chaining.
+     *
+     * @param priority The new update priority.
+     * @return This model.
+     */
+    default GlanceModel updatePriority(int priority) {
+        setUpdatePriority(priority);
+        return this;
+    }
+
     /**
      * Gets the shadow settings of the model.
      *
@@ -421,8 +481,9 @@ public interface GlanceModel {
 
     /**
      * Renders the model at a given projected location, applying interpolation over a specified duration.
-     * This function calculates the difference between the display's current position and the desired
-     * render location, then applies this difference as a translation to the model's transform.
+     * The translation of the model's transform is set to the difference between the target and the
+     * absolute position, so the model is only displaced visually and is still tracked at its absolute
+     * position. Use the engine's {@code renderAt} to move the model itself.
      *
      * @param position The target position (world co-ordinates) where the model should be visually rendered.
      * @param duration The interpolation duration, in ticks, over which the transition should occur.
@@ -432,8 +493,9 @@ public interface GlanceModel {
 
     /**
      * Renders the model at a given projected location, applying interpolation over a specified duration.
-     * This function calculates the difference between the display's current position and the desired
-     * render location, then applies this difference as a translation to the model's transform.
+     * The translation of the model's transform is set to the difference between the target and the
+     * absolute position, so the model is only displaced visually and is still tracked at its absolute
+     * position. Use the engine's {@code renderAt} to move the model itself.
      *
      * @param position The target position (world co-ordinates) where the model should be visually rendered.
      * @param extraAction A lambda that allows for additional customization of the model's transform.
@@ -442,8 +504,9 @@ public interface GlanceModel {
 
     /**
      * Renders the model at a given projected location, applying interpolation over a specified duration.
-     * This function calculates the difference between the display's current position and the desired
-     * render location, then applies this difference as a translation to the model's transform.
+     * The translation of the model's transform is set to the difference between the target and the
+     * absolute position, so the model is only displaced visually and is still tracked at its absolute
+     * position. Use the engine's {@code renderAt} to move the model itself.
      *
      * @param position The target position (world co-ordinates) where the model should be visually rendered.
      */
@@ -502,6 +565,17 @@ public interface GlanceModel {
         return getTransform().getMatrix();
     }
 
+    /**
+     * Gets the transformation matrix of the model, without allocating.
+     *
+     * @param dest The matrix to store the result in.
+     * @return The destination matrix.
+     */
+    @NotNull
+    default Matrix4f getTransformMatrix(@NotNull Matrix4f dest) {
+        return getTransform().getMatrix(dest);
+    }
+
 
     /**
      * Sets the transformation matrix of the model.
@@ -509,7 +583,9 @@ public interface GlanceModel {
      * @param matrix The new transformation matrix.
      */
     default void setTransformationMatrix(@NotNull Matrix4f matrix) {
-        this.setTransform(Transform.fromMatrix(matrix));
+        Transform transform = getTransform();
+        transform.setFromMatrix(matrix);
+        this.setTransform(transform);
     }
 
     /**
@@ -519,7 +595,7 @@ public interface GlanceModel {
      * @return This model.
      */
     default GlanceModel transformationMatrix(@NotNull Matrix4f matrix) {
-        this.setTransform(Transform.fromMatrix(matrix));
+        setTransformationMatrix(matrix);
         return this;
     }
 
@@ -584,7 +660,7 @@ public interface GlanceModel {
     default GlanceModel editMatrix(@NotNull Consumer<Matrix4f> editor) {
         Matrix4f mat4 = getTransformMatrix();
         editor.accept(mat4);
-        setTransform(Transform.fromMatrix(mat4));
+        setTransformationMatrix(mat4);
         return this;
     }
 
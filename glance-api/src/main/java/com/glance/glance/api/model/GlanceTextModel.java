@@ -1,8 +1,12 @@
 package com.glance.glance.api.model;
 
 import com.glance.glance.api.model.properties.Color;
+import com.glance.glance.api.model.properties.TextBinding;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
 
 /**
  * Represents a model for rendering text with customizable properties such as alignment, background color,
@@ -35,6 +39,34 @@ public interface GlanceTextModel extends GlanceModel {
         return this;
     }
 
+    /**
+     * Gets the binding the text is sampled from.
+     *
+     * @return The binding, or {@code null} if the text is only set directly.
+     */
+    @Nullable
+    TextBinding getTextBinding();
+
+    /**
+     * Binds the text to a supplier, sampled by the engine off the server thread. The text is only
+     * updated when a sample differs from the previous one, unchanged samples cost no update.
+     *
+     * @param binding The binding, or {@code null} to unbind the text.
+     */
+    void setTextBinding(@Nullable TextBinding binding);
+
+    /**
+     * Binds the text to a supplier and returns the model for chaining.
+     *
+     * @param supplier The supplier of the text, called from a background thread.
+     * @param interval The interval between samples in ticks.
+     * @return This text model.
+     */
+    default GlanceTextModel bindText(@NotNull Supplier<? extends Component> supplier, int interval) {
+        setTextBinding(new TextBinding(supplier, interval));
+        return this;
+    }
+
     /**
      * Gets the maximum line width for wrapping text.
      *
@@ -0,0 +1,330 @@
+package com.glance.glance.api.model;
+
+import com.glance.glance.api.model.properties.Transform;
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A node of a model hierarchy, composing the transforms of nested groups and models.
+ * <p>
+ * Every group and model has a local transform, relative to its parent group. The world transform
+ * of a node is its parent's world transform multiplied by its local transform, and is what its
+ * models are rendered with. World matrices are cached, so an {@link #update()} only recomputes the
+ * subtrees below changed nodes and only re-emits the models whose world transform actually changed.
+ * <p>
+ * Transforms apply relative to each model's absolute position, which groups do not move.
+ * Groups are not thread-safe.
+ */
+public final class ModelGroup {
+
+    // Below this per-element difference a world matrix is considered unchanged
+    private static final float EPSILON = 1.0E-6F;
+
+    @Nullable
+    private ModelGroup parent;
+    private final List<ModelGroup> children = new ArrayList<>();
+    private final List<Part> parts = new ArrayList<>();
+
+    private Transform transform;
+    private final Matrix4f worldMatrix = new Matrix4f();
+    private boolean dirty = true;
+    private boolean childDirty;
+
+    public ModelGroup() {
+        this(Transform.identity());
+    }
+
+    public ModelGroup(@NotNull Transform transform) {
+        this.transform = Validation.checkNotNull(transform, "transform");
+    }
+
+    /* Hierarchy */
+
+    /**
+     * Gets the parent of this group.
+     *
+     * @return The parent group, or {@code null} if this group is a root.
+     */
+    @Nullable
+    public ModelGroup getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Gets the nested groups of this group.
+     *
+     * @return An unmodifiable view of the child groups.
+     */
+    @NotNull
+    public List<ModelGroup> getChildren() {
+        return Collections.unmodifiableList(this.children);
+    }
+
+    /**
+     * Nests a group under this group.
+     *
+     * @param child The group to nest. It must not have a parent yet.
+     * @return This group.
+     */
+    public ModelGroup addChild(@NotNull ModelGroup child) {
+        Validation.checkNotNull(child, "child group");
+        Validation.checkArg(child.parent == null, "child group already has a parent");
+        for (ModelGroup node = this; node != null; node = node.parent) {
+            Validation.checkArg(node != child, "a group cannot be nested under itself");
+        }
+        child.parent = this;
+        this.children.add(child);
+        child.markDirty();
+        return this;
+    }
+
+    /**
+     * Removes a nested group from this group. Its models keep their last world transform.
+     *
+     * @param child The group to remove.
+     * @return {@code true} if the group was removed, {@code false} if it was not nested under this group.
+     */
+    public boolean removeChild(@NotNull ModelGroup child) {
+        if (!this.children.remove(child)) {
+            return false;
+        }
+        child.parent = null;
+        child.dirty = true;
+        return true;
+    }
+
+    /**
+     * Adds a model to this group at the group's origin.
+     *
+     * @param model The model to add.
+     * @return This group.
+     */
+    public ModelGroup add(@NotNull GlanceModel model) {
+        return add(model, Transform.identity());
+    }
+
+    /**
+     * Adds a model to this group.
+     *
+     * @param model     The model to add.
+     * @param transform The transform of the model, relative to this group.
+     * @return This group.
+     */
+    public ModelGroup add(@NotNull GlanceModel model, @NotNull Transform transform) {
+        Validation.checkNotNull(model, "model");
+        Validation.checkNotNull(transform, "transform");
+        Validation.checkArg(findPart(model) == null, "model was already added to this group");
+        this.parts.add(new Part(model, transform));
+        markChildDirty();
+        return this;
+    }
+
+    /**
+     * Removes a model from this group. It keeps its last world transform.
+     *
+     * @param model The model to remove.
+     * @return {@code true} if the model was removed, {@code false} if it was not in this group.
+     */
+    public boolean remove(@NotNull GlanceModel model) {
+        Part part = findPart(model);
+        return part != null && this.parts.remove(part);
+    }
+
+    /**
+     * Visits every model of this group and its nested groups.
+     *
+     * @param action The action to run for each model.
+     */
+    public void forEachModel(@NotNull Consumer<? super GlanceModel> action) {
+        for (Part part : this.parts) {
+            action.accept(part.model);
+        }
+        for (ModelGroup child : this.children) {
+            child.forEachModel(action);
+        }
+    }
+
+    /* Transforms */
+
+    /**
+     * Gets the local transform of this group. Changes made to it directly must be
+     * followed by {@link #markDirty()}.
+     *
+     * @return The local transform.
+     */
+    @NotNull
+    public Transform getTransform() {
+        return this.transform;
+    }
+
+    /**
+     * Sets the local transform of this group.
+     *
+     * @param transform The new local transform.
+     */
+    public void setTransform(@NotNull Transform transform) {
+        this.transform = Validation.checkNotNull(transform, "transform");
+        markDirty();
+    }
+
+    /**
+     * Edits the local transform of this group.
+     *
+     * @param editor A consumer that modifies the transform.
+     * @return This group.
+     */
+    public ModelGroup editTransform(@NotNull Consumer<Transform> editor) {
+        editor.accept(this.transform);
+        markDirty();
+        return this;
+    }
+
+    /**
+     * Gets the transform of a model of this group, relative to this group.
+     *
+     * @param model The model.
+     * @return The local transform of the model.
+     */
+    @NotNull
+    public Transform getTransform(@NotNull GlanceModel model) {
+        return requirePart(model).transform;
+    }
+
+    /**
+     * Edits the transform of a model of this group, relative to this group.
+     *
+     * @param model  The model.
+     * @param editor A consumer that modifies the transform.
+     * @return This group.
+     */
+    public ModelGroup editTransform(@NotNull GlanceModel model, @NotNull Consumer<Transform> editor) {
+        Part part = requirePart(model);
+        editor.accept(part.transform);
+        part.dirty = true;
+        markChildDirty();
+        return this;
+    }
+
+    /**
+     * Gets the world matrix of this group, as of the last {@link #update()}.
+     *
+     * @param dest The matrix to store the result in.
+     * @return The destination matrix.
+     */
+    @NotNull
+    public Matrix4f getWorldMatrix(@NotNull Matrix4f dest) {
+        return dest.set(this.worldMatrix);
+    }
+
+    /**
+     * Flags the local transform of this group as changed, so its subtree is
+     * recomputed on the next update.
+     */
+    public void markDirty() {
+        this.dirty = true;
+        if (this.parent != null) {
+            this.parent.markChildDirty();
+        }
+    }
+
+    private void markChildDirty() {
+        for (ModelGroup node = this; node != null && !node.childDirty; node = node.parent) {
+            node.childDirty = true;
+        }
+    }
+
+    /* Update */
+
+    /**
+     * Recomputes the world transforms changed since the last update, and applies them
+     * to the affected models. Only subtrees below changed nodes are visited.
+     * <p>
+     * Should be called on the root group, nested groups are updated relative to the
+     * cached world matrix of their parent.
+     *
+     * @return The number of models whose transform was changed.
+     */
+    public int update() {
+        if (this.parent == null) {
+            return update(new Matrix4f(), false, new Matrix4f(), new Matrix4f());
+        }
+        return update(this.parent.worldMatrix, false, new Matrix4f(), new Matrix4f());
+    }
+
+    private int update(Matrix4f parentMatrix, boolean parentChanged, Matrix4f local, Matrix4f scratch) {
+        boolean changed = false;
+        if (parentChanged || this.dirty) {
+            parentMatrix.mul(this.transform.getMatrix(local), scratch);
+            changed = !scratch.equals(this.worldMatrix, EPSILON);
+            this.worldMatrix.set(scratch);
+            this.dirty = false;
+        }
+        if (!changed && !this.childDirty) {
+            return 0;
+        }
+        int updated = 0;
+        for (Part part : this.parts) {
+            if (changed || part.dirty) {
+                updated += part.update(this.worldMatrix, local, scratch);
+            }
+        }
+        for (ModelGroup child : this.children) {
+            updated += child.update(this.worldMatrix, changed, local, scratch);
+        }
+        this.childDirty = false;
+        return updated;
+    }
+
+    @Nullable
+    private Part findPart(GlanceModel model) {
+        for (Part part : this.parts) {
+            if (part.model == model) return part;
+        }
+        return null;
+    }
+
+    private Part requirePart(GlanceModel model) {
+        Part part = findPart(model);
+        Validation.checkArg(part != null, "model is not part of this group");
+        return part;
+    }
+
+    /**
+     * A model of a group, with its transform relative to the group.
+     */
+    private static final class Part {
+
+        private final GlanceModel model;
+        private final Transform transform;
+        // World matrix last applied to the model
+        private final Matrix4f worldMatrix = new Matrix4f();
+        private boolean dirty = true;
+        private boolean applied;
+
+        private Part(GlanceModel model, Transform transform) {
+            this.model = model;
+            this.transform = transform;
+        }
+
+        private int update(Matrix4f groupMatrix, Matrix4f local, Matrix4f scratch) {
+            groupMatrix.mul(this.transform.getMatrix(local), scratch);
+            this.dirty = false;
+            if (this.applied && scratch.equals(this.worldMatrix, EPSILON)) {
+                return 0;
+            }
+            this.worldMatrix.set(scratch);
+            this.applied = true;
+            this.model.setTransformationMatrix(this.worldMatrix);
+            return 1;
+        }
+
+    }
+
+}
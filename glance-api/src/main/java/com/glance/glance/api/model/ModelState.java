@@ -0,0 +1,137 @@
+package com.glance.glance.api.model;
+
+import com.glance.glance.api.model.properties.Billboard;
+import com.glance.glance.api.model.properties.Color;
+import com.glance.glance.api.model.properties.Transform;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+/**
+ * A consistent snapshot of the properties of a model, as last published to its engine.
+ * <p>
+ * Producers may change a model from any thread, their changes are staged on the model. The
+ * engine publishes the staged properties into this snapshot when it updates the model, and
+ * encodes and tracks the model from the snapshot only. A snapshot is never torn: it holds the
+ * properties as they were between two edits.
+ * <p>
+ * The snapshot is owned by the thread running the engine's updates, and must not be mutated.
+ */
+public final class ModelState {
+
+    final Vector3f position = new Vector3f();
+    final Transform transform = new Transform();
+    float viewRange;
+    float shadowRadius;
+    float shadowStrength;
+    int blockLight;
+    int skyLight;
+    float cullingWidth;
+    float cullingHeight;
+    Billboard billboard;
+    Color glowColor;
+    int interpolationDelay;
+    int interpolationDuration;
+    int teleportDuration;
+
+    long generation = -1;
+    int changed;
+
+    ModelState() {
+    }
+
+    void copyFrom(AbstractModel model) {
+        this.position.set(model.absolutePosition);
+        this.transform.set(model.transform);
+        this.viewRange = model.viewRange;
+        this.shadowRadius = model.shadowRadius;
+        this.shadowStrength = model.shadowStrength;
+        this.blockLight = model.blockLight;
+        this.skyLight = model.skyLight;
+        this.cullingWidth = model.cullingWidth;
+        this.cullingHeight = model.cullingHeight;
+        this.billboard = model.billboard;
+        this.glowColor = model.glowColor;
+        this.interpolationDelay = model.interpolationDelay;
+        this.interpolationDuration = model.interpolationDuration;
+        this.teleportDuration = model.teleportDuration;
+    }
+
+    /**
+     * Gets the change generation of the model when this snapshot was published.
+     *
+     * @return The generation, or {@code -1} if the model was never published.
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Gets the properties changed by the last publish.
+     *
+     * @return The {@link DirtyFlags} mask.
+     */
+    public int getChanged() {
+        return this.changed;
+    }
+
+    @NotNull
+    public Vector3f getPosition() {
+        return this.position;
+    }
+
+    @NotNull
+    public Transform getTransform() {
+        return this.transform;
+    }
+
+    public float getViewRange() {
+        return this.viewRange;
+    }
+
+    public float getShadowRadius() {
+        return this.shadowRadius;
+    }
+
+    public float getShadowStrength() {
+        return this.shadowStrength;
+    }
+
+    public int getBlockLight() {
+        return this.blockLight;
+    }
+
+    public int getSkyLight() {
+        return this.skyLight;
+    }
+
+    public float getCullingWidth() {
+        return this.cullingWidth;
+    }
+
+    public float getCullingHeight() {
+        return this.cullingHeight;
+    }
+
+    @NotNull
+    public Billboard getBillboard() {
+        return this.billboard;
+    }
+
+    @NotNull
+    public Color getGlowColor() {
+        return this.glowColor;
+    }
+
+    public int getInterpolationDelay() {
+        return this.interpolationDelay;
+    }
+
+    public int getInterpolationDuration() {
+        return this.interpolationDuration;
+    }
+
+    public int getTeleportDuration() {
+        return this.teleportDuration;
+    }
+
+}
@@ -0,0 +1,414 @@
+package com.glance.glance.api.model;
+
+import com.glance.glance.api.model.GlanceTextModel.Alignment;
+import com.glance.glance.api.model.properties.Color;
+import com.glance.glance.api.utils.Validation;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.TextColor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Renders raster images as pixel art on text models, in one of two {@link Mode}s.
+ * <p>
+ * Adjacent pixels of the same color are merged into runs, so a run costs one text component or
+ * one model instead of one per pixel. Frames are compared row by row with the previous frame,
+ * and only the rows that changed are sent again.
+ * <p>
+ * Each model is created at its place, given to the model factory as an offset in blocks from the
+ * art's origin, the bottom left corner of the art.
+ * <p>
+ * Pixel art is not thread-safe.
+ *
+ * @param <AModel> The text model type.
+ */
+public final class PixelArt<AModel extends GlanceTextModel> {
+
+    // Pixels below this alpha are transparent, the others opaque
+    private static final int ALPHA_THRESHOLD = 128;
+    private static final int TRANSPARENT = 0;
+    // The background of a single space spans 5 by 10 font pixels, 1/40 of a block each
+    private static final float CELL_WIDTH = 0.125F;
+    private static final float CELL_HEIGHT = 0.25F;
+    private static final Component CELL = Component.text(" ");
+
+    private final int width;
+    private final int height;
+    private final Mode mode;
+    private final String glyph;
+    @Nullable
+    private final String blank;
+    private final float lineHeight;
+    private final float pixelSize;
+    private final Function<Vector3f, ? extends AModel> factory;
+    private final Consumer<? super AModel> release;
+
+    // Glyph mode, one model per row
+    private final List<AModel> rows = new ArrayList<>();
+    // Background mode, the runs of each row with their model
+    private final List<List<Cell<AModel>>> cells = new ArrayList<>();
+    private boolean rendered;
+    // The last rendered frame, quantized to opaque RGB or TRANSPARENT
+    private final int[] frame;
+    private final int[] scratch;
+
+    private PixelArt(Builder builder, Function<Vector3f, ? extends AModel> factory, Consumer<? super AModel> release) {
+        this.width = builder.width;
+        this.height = builder.height;
+        this.mode = builder.mode;
+        this.glyph = builder.glyph;
+        this.blank = builder.blank;
+        this.lineHeight = builder.lineHeight;
+        this.pixelSize = builder.pixelSize;
+        this.factory = Validation.checkNotNull(factory, "factory");
+        this.release = Validation.checkNotNull(release, "release");
+        this.frame = new int[this.width * this.height];
+        this.scratch = new int[this.width * this.height];
+    }
+
+    /**
+     * Creates a builder for pixel art of a size.
+     *
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     * @return The builder.
+     */
+    public static Builder builder(int width, int height) {
+        return new Builder(width, height);
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    @NotNull
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * Gets the models rendering the art, top row first, and left to right in a row.
+     *
+     * @return A snapshot of the models, empty until the first frame.
+     */
+    @NotNull
+    public List<AModel> getModels() {
+        if (this.mode == Mode.GLYPHS) {
+            return Collections.unmodifiableList(new ArrayList<>(this.rows));
+        }
+        List<AModel> models = new ArrayList<>();
+        for (List<Cell<AModel>> row : this.cells) {
+            for (Cell<AModel> cell : row) {
+                models.add(cell.model);
+            }
+        }
+        return Collections.unmodifiableList(models);
+    }
+
+    /**
+     * Renders a frame of packed ARGB pixels, row-major from the top left.
+     *
+     * @param pixels The pixels, {@code width * height} of them.
+     * @return The number of rows sent.
+     * @throws IllegalArgumentException if a pixel is transparent in glyph mode without a blank glyph.
+     */
+    public int render(int @NotNull [] pixels) {
+        Validation.checkNotNull(pixels, "pixels");
+        Validation.checkArg(pixels.length == this.scratch.length, "Expected " + this.scratch.length + " pixels, got " + pixels.length);
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            this.scratch[i] = (argb >>> 24) < ALPHA_THRESHOLD ? TRANSPARENT : argb | 0xFF000000;
+            Validation.checkArg(this.scratch[i] != TRANSPARENT || this.blank != null || this.mode != Mode.GLYPHS,
+                    "Transparent pixels need a blank glyph as wide as the pixel glyph, or the background mode");
+        }
+        boolean first = !this.rendered;
+        if (first) {
+            createRows();
+            this.rendered = true;
+        }
+        int sent = 0;
+        for (int row = 0; row < this.height; row++) {
+            int from = row * this.width;
+            int to = from + this.width;
+            if (!first && Arrays.equals(this.scratch, from, to, this.frame, from, to)) continue;
+            System.arraycopy(this.scratch, from, this.frame, from, this.width);
+            if (this.mode == Mode.GLYPHS) {
+                this.rows.get(row).setTextData(renderRow(from, to));
+            } else {
+                updateCells(row, from, to);
+            }
+            sent++;
+        }
+        return sent;
+    }
+
+    /**
+     * Renders an image, which must be the size of the art.
+     *
+     * @param image The image.
+     * @return The number of rows sent.
+     */
+    public int render(@NotNull BufferedImage image) {
+        Validation.checkNotNull(image, "image");
+        Validation.checkArg(image.getWidth() == this.width && image.getHeight() == this.height,
+                "Expected a " + this.width + "x" + this.height + " image, got " + image.getWidth() + "x" + image.getHeight());
+        return render(image.getRGB(0, 0, this.width, this.height, null, 0, this.width));
+    }
+
+    /**
+     * Releases every model. The next frame creates them again.
+     */
+    public void clear() {
+        for (AModel model : this.rows) {
+            this.release.accept(model);
+        }
+        for (List<Cell<AModel>> row : this.cells) {
+            for (Cell<AModel> cell : row) {
+                this.release.accept(cell.model);
+            }
+        }
+        this.rows.clear();
+        this.cells.clear();
+        this.rendered = false;
+    }
+
+    private void createRows() {
+        if (this.mode == Mode.BACKGROUND) {
+            // Cells are created per run as rows are rendered
+            for (int row = 0; row < this.height; row++) {
+                this.cells.add(new ArrayList<>());
+            }
+            return;
+        }
+        int lineWidth = Math.max(1, this.width * 16);
+        for (int row = 0; row < this.height; row++) {
+            // The top row sits highest, the bottom row at the origin
+            AModel model = this.factory.apply(new Vector3f(0, (this.height - 1 - row) * this.lineHeight, 0));
+            model.edit(editor -> {
+                model.setAlignment(Alignment.LEFT);
+                model.setLineWidth(lineWidth);
+                model.setBackgroundColor(Color.transparent());
+            });
+            this.rows.add(model);
+        }
+    }
+
+    private Component renderRow(int from, int to) {
+        TextComponent.Builder text = Component.text();
+        int start = from;
+        while (start < to) {
+            int color = this.scratch[start];
+            int end = runEnd(start, to);
+            if (color == TRANSPARENT) {
+                text.append(Component.text(this.blank.repeat(end - start)));
+            } else {
+                text.append(Component.text(this.glyph.repeat(end - start), TextColor.color(color & 0xFFFFFF)));
+            }
+            start = end;
+        }
+        return text.build();
+    }
+
+    /**
+     * Replaces the cells of a changed row. Runs keeping their bounds keep their model and only
+     * change color, the others are created at their place, and the models left over released.
+     */
+    private void updateCells(int row, int from, int to) {
+        List<Cell<AModel>> previous = this.cells.get(row);
+        Map<Long, Cell<AModel>> byBounds = new HashMap<>(previous.size() * 2);
+        for (Cell<AModel> cell : previous) {
+            byBounds.put(cell.bounds(), cell);
+        }
+        List<Cell<AModel>> next = new ArrayList<>();
+        int start = from;
+        while (start < to) {
+            int color = this.scratch[start];
+            int end = runEnd(start, to);
+            if (color != TRANSPARENT) {
+                Cell<AModel> cell = byBounds.remove(Cell.bounds(start - from, end - start));
+                if (cell == null) {
+                    cell = new Cell<>(start - from, end - start, createCell(row, start - from, end - start));
+                }
+                if (cell.color != color) {
+                    cell.color = color;
+                    cell.model.setBackgroundColor(Color.fromARGB(color));
+                }
+                next.add(cell);
+            }
+            start = end;
+        }
+        for (Cell<AModel> stale : byBounds.values()) {
+            this.release.accept(stale.model);
+        }
+        this.cells.set(row, next);
+    }
+
+    private AModel createCell(int row, int start, int length) {
+        float size = this.pixelSize;
+        // Text is centered on its model, which sits at the bottom center of the run
+        AModel model = this.factory.apply(new Vector3f((start + length / 2.0F) * size, (this.height - 1 - row) * size, 0));
+        model.edit(editor -> {
+            model.setTextData(CELL);
+            model.editTransform(transform -> transform.setScale(new Vector3f(length * size / CELL_WIDTH, size / CELL_HEIGHT, 1.0F)));
+        });
+        return model;
+    }
+
+    private int runEnd(int start, int to) {
+        int color = this.scratch[start];
+        int end = start + 1;
+        while (end < to && this.scratch[end] == color) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * How pixels are drawn.
+     */
+    public enum Mode {
+        /**
+         * One model per row, each run drawn as a span of colored glyphs. Transparent pixels need a
+         * blank glyph as wide as the pixel glyph in the font in use.
+         */
+        GLYPHS,
+        /**
+         * One model per run of opaque pixels, drawn as the background of a stretched space.
+         * Transparent pixels cost nothing, and no glyph widths are involved.
+         */
+        BACKGROUND
+    }
+
+    private static final class Cell<AModel> {
+
+        private final int start;
+        private final int length;
+        private final AModel model;
+        private int color = TRANSPARENT;
+
+        private Cell(int start, int length, AModel model) {
+            this.start = start;
+            this.length = length;
+            this.model = model;
+        }
+
+        private long bounds() {
+            return bounds(this.start, this.length);
+        }
+
+        private static long bounds(int start, int length) {
+            return (long) start << 32 | length;
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final int width;
+        private final int height;
+        private Mode mode = Mode.GLYPHS;
+        private String glyph = "\u2588";
+        @Nullable
+        private String blank;
+        private float lineHeight = 0.25F;
+        private float pixelSize = 0.125F;
+
+        private Builder(int width, int height) {
+            Validation.checkArg(width > 0 && height > 0, "Pixel art size must be positive");
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Sets how pixels are drawn. Defaults to {@link Mode#GLYPHS}.
+         *
+         * @param mode The mode.
+         * @return This builder.
+         */
+        public Builder mode(@NotNull Mode mode) {
+            this.mode = Validation.checkNotNull(mode, "mode");
+            return this;
+        }
+
+        /**
+         * Sets the glyph drawing a pixel in glyph mode. Defaults to a full block.
+         *
+         * @param glyph The glyph.
+         * @return This builder.
+         */
+        public Builder glyph(@NotNull String glyph) {
+            Validation.checkArg(glyph != null && !glyph.isEmpty(), "glyph must not be empty");
+            this.glyph = glyph;
+            return this;
+        }
+
+        /**
+         * Sets the glyph drawing a transparent pixel in glyph mode, which has to be as wide as the
+         * pixel glyph in the font in use. There is no default: without one, frames with
+         * transparent pixels are rejected in glyph mode.
+         *
+         * @param blank The glyph.
+         * @return This builder.
+         */
+        public Builder blank(@NotNull String blank) {
+            Validation.checkArg(blank != null && !blank.isEmpty(), "blank must not be empty");
+            this.blank = blank;
+            return this;
+        }
+
+        /**
+         * Sets the distance between rows in glyph mode, in blocks. Defaults to 0.25, the line
+         * height of the default font at a scale of one.
+         *
+         * @param lineHeight The line height.
+         * @return This builder.
+         */
+        public Builder lineHeight(float lineHeight) {
+            Validation.checkArg(lineHeight > 0, "lineHeight must be positive");
+            this.lineHeight = lineHeight;
+            return this;
+        }
+
+        /**
+         * Sets the size of a pixel in background mode, in blocks. Defaults to 0.125.
+         *
+         * @param pixelSize The pixel size.
+         * @return This builder.
+         */
+        public Builder pixelSize(float pixelSize) {
+            Validation.checkArg(pixelSize > 0, "pixelSize must be positive");
+            this.pixelSize = pixelSize;
+            return this;
+        }
+
+        /**
+         * Builds the pixel art. Models are created on the first frame.
+         *
+         * @param factory  The factory creating a model at an offset from the art's origin.
+         * @param release  The callback releasing the models no longer used.
+         * @param <AModel> The text model type.
+         * @return The pixel art.
+         */
+        public <AModel extends GlanceTextModel> PixelArt<AModel> build(@NotNull Function<Vector3f, ? extends AModel> factory, @NotNull Consumer<? super AModel> release) {
+            return new PixelArt<>(this, factory, release);
+        }
+
+    }
+
+}
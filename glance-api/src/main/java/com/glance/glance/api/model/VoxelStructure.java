@@ -0,0 +1,420 @@
+package com.glance.glance.api.model;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A grid of blocks rendered with the fewest block models, by merging boxes of identical blocks
+ * into single models stretched with their transform's scale.
+ * <p>
+ * Each model is placed at the minimum corner of its box, given to the model callbacks as an
+ * offset in blocks from the structure's origin, and stretched over the box by its transform's
+ * scale. The grid is split into regions of {@value #REGION_SIZE} cells per axis, merged
+ * independently of each other: changing cells only re-merges their regions on the next
+ * {@link #update()}. Models whose box survived a re-merge are left untouched, the others are
+ * moved onto the new boxes before any model is created or released.
+ * <p>
+ * Structures are not thread-safe.
+ *
+ * @param <ABlock> The type representing a block state.
+ * @param <AModel> The block model type.
+ */
+public final class VoxelStructure<ABlock, AModel extends GlanceBlockModel<ABlock>> {
+
+    public static final int REGION_SIZE = 16;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final Object[] cells;
+    private final float cellSize;
+    private final Function<Vector3f, ? extends AModel> factory;
+    private final BiConsumer<? super AModel, Vector3f> move;
+    private final Consumer<? super AModel> release;
+
+    // Regions are indexed like cells, x fastest
+    private final int regionsX;
+    private final int regionsY;
+    private final int regionsZ;
+    private final List<List<Box<AModel>>> regionBoxes;
+    private final boolean[] dirtyRegions;
+    private boolean dirty;
+    private int modelCount;
+
+    // Scratch state reused by merges
+    private boolean[] merged = new boolean[0];
+
+    /**
+     * Creates an empty structure with cells of one block.
+     *
+     * @param sizeX   The size of the grid along x, in cells.
+     * @param sizeY   The size of the grid along y, in cells.
+     * @param sizeZ   The size of the grid along z, in cells.
+     * @param factory The factory creating a model at an offset from the structure's origin.
+     * @param move    The callback moving a reused model to an offset from the structure's origin.
+     * @param release The callback releasing models no longer used.
+     */
+    public VoxelStructure(int sizeX, int sizeY, int sizeZ, @NotNull Function<Vector3f, ? extends AModel> factory,
+                          @NotNull BiConsumer<? super AModel, Vector3f> move, @NotNull Consumer<? super AModel> release) {
+        this(sizeX, sizeY, sizeZ, 1.0F, factory, move, release);
+    }
+
+    /**
+     * Creates an empty structure.
+     *
+     * @param sizeX    The size of the grid along x, in cells.
+     * @param sizeY    The size of the grid along y, in cells.
+     * @param sizeZ    The size of the grid along z, in cells.
+     * @param cellSize The size of a cell in blocks.
+     * @param factory  The factory creating a model at an offset from the structure's origin.
+     * @param move     The callback moving a reused model to an offset from the structure's origin.
+     * @param release  The callback releasing models no longer used.
+     */
+    public VoxelStructure(int sizeX, int sizeY, int sizeZ, float cellSize, @NotNull Function<Vector3f, ? extends AModel> factory,
+                          @NotNull BiConsumer<? super AModel, Vector3f> move, @NotNull Consumer<? super AModel> release) {
+        Validation.checkArg(sizeX > 0 && sizeY > 0 && sizeZ > 0, "Structure size must be positive");
+        Validation.checkArg(cellSize > 0, "cellSize must be positive");
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.cells = new Object[Math.multiplyExact(Math.multiplyExact(sizeX, sizeY), sizeZ)];
+        this.cellSize = cellSize;
+        this.factory = Validation.checkNotNull(factory, "factory");
+        this.move = Validation.checkNotNull(move, "move");
+        this.release = Validation.checkNotNull(release, "release");
+        this.regionsX = (sizeX + REGION_SIZE - 1) / REGION_SIZE;
+        this.regionsY = (sizeY + REGION_SIZE - 1) / REGION_SIZE;
+        this.regionsZ = (sizeZ + REGION_SIZE - 1) / REGION_SIZE;
+        int regions = this.regionsX * this.regionsY * this.regionsZ;
+        this.regionBoxes = new ArrayList<>(regions);
+        for (int i = 0; i < regions; i++) {
+            this.regionBoxes.add(new ArrayList<>());
+        }
+        this.dirtyRegions = new boolean[regions];
+    }
+
+    /* Cells */
+
+    public int getSizeX() {
+        return this.sizeX;
+    }
+
+    public int getSizeY() {
+        return this.sizeY;
+    }
+
+    public int getSizeZ() {
+        return this.sizeZ;
+    }
+
+    /**
+     * Gets the block of a cell.
+     *
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
+     * @param z The z coordinate of the cell.
+     * @return The block, or {@code null} if the cell is empty.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public ABlock get(int x, int y, int z) {
+        return (ABlock) this.cells[index(x, y, z)];
+    }
+
+    /**
+     * Sets the block of a cell. Blocks are merged by equality.
+     *
+     * @param x     The x coordinate of the cell.
+     * @param y     The y coordinate of the cell.
+     * @param z     The z coordinate of the cell.
+     * @param block The block, or {@code null} to empty the cell.
+     */
+    public void set(int x, int y, int z, @Nullable ABlock block) {
+        int index = index(x, y, z);
+        if (Objects.equals(this.cells[index], block)) {
+            return;
+        }
+        this.cells[index] = block;
+        markRegion(x / REGION_SIZE, y / REGION_SIZE, z / REGION_SIZE);
+    }
+
+    /**
+     * Sets the block of every cell in a box, bounds inclusive.
+     *
+     * @param minX  The minimum x coordinate.
+     * @param minY  The minimum y coordinate.
+     * @param minZ  The minimum z coordinate.
+     * @param maxX  The maximum x coordinate.
+     * @param maxY  The maximum y coordinate.
+     * @param maxZ  The maximum z coordinate.
+     * @param block The block, or {@code null} to empty the cells.
+     */
+    public void fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, @Nullable ABlock block) {
+        Validation.checkArg(minX <= maxX && minY <= maxY && minZ <= maxZ, "Invalid fill bounds");
+        index(minX, minY, minZ);
+        index(maxX, maxY, maxZ);
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    set(x, y, z, block);
+                }
+            }
+        }
+    }
+
+    /* Models */
+
+    /**
+     * Gets the models currently rendering this structure.
+     *
+     * @return A snapshot of the models.
+     */
+    @NotNull
+    public Collection<AModel> getModels() {
+        List<AModel> models = new ArrayList<>(this.modelCount);
+        for (List<Box<AModel>> boxes : this.regionBoxes) {
+            for (Box<AModel> box : boxes) {
+                models.add(box.model);
+            }
+        }
+        return Collections.unmodifiableList(models);
+    }
+
+    public int getModelCount() {
+        return this.modelCount;
+    }
+
+    /**
+     * Re-merges the regions changed since the last update and applies the new boxes to the models.
+     *
+     * @return The number of models created, released or changed.
+     */
+    public int update() {
+        if (!this.dirty) {
+            return 0;
+        }
+        this.dirty = false;
+        int changes = 0;
+        for (int region = 0; region < this.dirtyRegions.length; region++) {
+            if (!this.dirtyRegions[region]) continue;
+            this.dirtyRegions[region] = false;
+            changes += updateRegion(region);
+        }
+        return changes;
+    }
+
+    /**
+     * Releases every model and empties the grid.
+     */
+    public void clear() {
+        for (List<Box<AModel>> boxes : this.regionBoxes) {
+            for (Box<AModel> box : boxes) {
+                this.release.accept(box.model);
+            }
+            boxes.clear();
+        }
+        Arrays.fill(this.cells, null);
+        Arrays.fill(this.dirtyRegions, false);
+        this.dirty = false;
+        this.modelCount = 0;
+    }
+
+    private int updateRegion(int region) {
+        int regionX = region % this.regionsX;
+        int regionY = region / (this.regionsX * this.regionsZ);
+        int regionZ = region / this.regionsX % this.regionsZ;
+        List<Box<AModel>> merged = merge(
+                regionX * REGION_SIZE, regionY * REGION_SIZE, regionZ * REGION_SIZE,
+                Math.min(this.sizeX, (regionX + 1) * REGION_SIZE),
+                Math.min(this.sizeY, (regionY + 1) * REGION_SIZE),
+                Math.min(this.sizeZ, (regionZ + 1) * REGION_SIZE)
+        );
+        List<Box<AModel>> previous = this.regionBoxes.get(region);
+
+        // Boxes that survived keep their model untouched
+        Map<Box<AModel>, Box<AModel>> unchanged = new HashMap<>(previous.size() * 2);
+        for (Box<AModel> box : previous) {
+            unchanged.put(box, box);
+        }
+        List<Box<AModel>> added = new ArrayList<>();
+        for (Box<AModel> box : merged) {
+            Box<AModel> kept = unchanged.remove(box);
+            if (kept != null) {
+                box.model = kept.model;
+            } else {
+                added.add(box);
+            }
+        }
+
+        // Stale models are moved onto new boxes first, only the difference is created or released
+        int changes = 0;
+        Iterator<Box<AModel>> stale = unchanged.values().iterator();
+        for (Box<AModel> box : added) {
+            if (stale.hasNext()) {
+                box.model = stale.next().model;
+                apply(box);
+                // Moved once edited, so the model shows its new block as it arrives
+                this.move.accept(box.model, corner(box));
+            } else {
+                box.model = this.factory.apply(corner(box));
+                apply(box);
+            }
+            changes++;
+        }
+        while (stale.hasNext()) {
+            this.release.accept(stale.next().model);
+            changes++;
+        }
+        this.modelCount += merged.size() - previous.size();
+        this.regionBoxes.set(region, merged);
+        return changes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Box<AModel> box) {
+        AModel model = box.model;
+        float size = this.cellSize;
+        model.edit(editor -> {
+            model.setBlockState((ABlock) box.block);
+            model.editTransform(transform -> transform.setScale(new Vector3f(box.width * size, box.height * size, box.depth * size)));
+        });
+    }
+
+    private Vector3f corner(Box<AModel> box) {
+        return new Vector3f(box.x * this.cellSize, box.y * this.cellSize, box.z * this.cellSize);
+    }
+
+    /**
+     * Greedily merges the cells of a region into boxes: runs along x first, then rows of equal
+     * runs along z, then layers of equal rows along y.
+     */
+    private List<Box<AModel>> merge(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        int lengthX = maxX - minX;
+        int lengthZ = maxZ - minZ;
+        int volume = lengthX * (maxY - minY) * lengthZ;
+        if (this.merged.length < volume) {
+            this.merged = new boolean[volume];
+        } else {
+            Arrays.fill(this.merged, 0, volume, false);
+        }
+
+        List<Box<AModel>> boxes = new ArrayList<>();
+        for (int y = minY; y < maxY; y++) {
+            for (int z = minZ; z < maxZ; z++) {
+                for (int x = minX; x < maxX; x++) {
+                    Object block = this.cells[index(x, y, z)];
+                    if (block == null || this.merged[local(x - minX, y - minY, z - minZ, lengthX, lengthZ)]) continue;
+
+                    int endX = x + 1;
+                    while (endX < maxX && fits(block, endX, endX + 1, y, y + 1, z, z + 1, minX, minY, minZ, lengthX, lengthZ)) {
+                        endX++;
+                    }
+                    int endZ = z + 1;
+                    while (endZ < maxZ && fits(block, x, endX, y, y + 1, endZ, endZ + 1, minX, minY, minZ, lengthX, lengthZ)) {
+                        endZ++;
+                    }
+                    int endY = y + 1;
+                    while (endY < maxY && fits(block, x, endX, endY, endY + 1, z, endZ, minX, minY, minZ, lengthX, lengthZ)) {
+                        endY++;
+                    }
+
+                    for (int by = y; by < endY; by++) {
+                        for (int bz = z; bz < endZ; bz++) {
+                            for (int bx = x; bx < endX; bx++) {
+                                this.merged[local(bx - minX, by - minY, bz - minZ, lengthX, lengthZ)] = true;
+                            }
+                        }
+                    }
+                    boxes.add(new Box<>(x, y, z, endX - x, endY - y, endZ - z, block));
+                }
+            }
+        }
+        return boxes;
+    }
+
+    private boolean fits(Object block, int fromX, int toX, int fromY, int toY, int fromZ, int toZ,
+                         int minX, int minY, int minZ, int lengthX, int lengthZ) {
+        for (int y = fromY; y < toY; y++) {
+            for (int z = fromZ; z < toZ; z++) {
+                for (int x = fromX; x < toX; x++) {
+                    if (this.merged[local(x - minX, y - minY, z - minZ, lengthX, lengthZ)]
+                            || !block.equals(this.cells[index(x, y, z)])) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void markRegion(int regionX, int regionY, int regionZ) {
+        this.dirtyRegions[regionX + (regionZ + regionY * this.regionsZ) * this.regionsX] = true;
+        this.dirty = true;
+    }
+
+    private int index(int x, int y, int z) {
+        Validation.checkArg(x >= 0 && x < this.sizeX && y >= 0 && y < this.sizeY && z >= 0 && z < this.sizeZ,
+                "Cell " + x + ", " + y + ", " + z + " is outside the structure");
+        return x + (z + y * this.sizeZ) * this.sizeX;
+    }
+
+    private static int local(int x, int y, int z, int lengthX, int lengthZ) {
+        return x + (z + y * lengthZ) * lengthX;
+    }
+
+    // Equal by bounds and block, the model is carried along
+    private static final class Box<AModel> {
+
+        private final int x, y, z;
+        private final int width, height, depth;
+        private final Object block;
+        private AModel model;
+
+        private Box(int x, int y, int z, int width, int height, int depth, Object block) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.width = width;
+            this.height = height;
+            this.depth = depth;
+            this.block = block;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Box<?> box)) return false;
+            return this.x == box.x && this.y == box.y && this.z == box.z
+                    && this.width == box.width && this.height == box.height && this.depth == box.depth
+                    && this.block.equals(box.block);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = this.x;
+            hash = 31 * hash + this.y;
+            hash = 31 * hash + this.z;
+            hash = 31 * hash + this.width;
+            hash = 31 * hash + this.height;
+            hash = 31 * hash + this.depth;
+            return 31 * hash + this.block.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.glance.glance.api.model.properties;
+
+import com.glance.glance.api.utils.Validation;
+
+/**
+ * Represents the level of detail settings of a model, controlling how often distant viewers are updated.
+ * <p>
+ * The view distance of a model is split into three tiers, sized as fractions of it:
+ * <ul>
+ *     <li>{@link Tier#NEAR} - Viewers within {@code nearFraction} of the view distance receive every change.</li>
+ *     <li>{@link Tier#MID} - Viewers within {@code midFraction} receive the changes coalesced every {@code midInterval} ticks.</li>
+ *     <li>{@link Tier#FAR} - Any further viewer receives the changes coalesced every {@code farInterval} ticks.</li>
+ * </ul>
+ * Coalesced updates stretch the interpolation duration over the interval, so distant motion stays smooth.
+ *
+ * @param nearFraction The fraction of the view distance covered by the near tier, between 0 and 1.
+ * @param midFraction  The fraction of the view distance covered by the near and mid tiers, between {@code nearFraction} and 1.
+ * @param midInterval  The interval in ticks between updates of mid tier viewers. At least 1.
+ * @param farInterval  The interval in ticks between updates of far tier viewers. At least 1.
+ */
+public record LevelOfDetail(float nearFraction, float midFraction, int midInterval, int farInterval) {
+    public LevelOfDetail {
+        Validation.checkArg(nearFraction >= 0 && nearFraction <= 1, "nearFraction must be between 0 and 1");
+        Validation.checkArg(midFraction >= nearFraction && midFraction <= 1, "midFraction must be between nearFraction and 1");
+        Validation.checkArg(midInterval >= 1, "midInterval must be at least 1");
+        Validation.checkArg(farInterval >= 1, "farInterval must be at least 1");
+    }
+    /**
+     * Every viewer is in the near tier and receives every change.
+     */
+    public static final LevelOfDetail NONE = new LevelOfDetail(1, 1, 1, 1);
+    /**
+     * The default {@link LevelOfDetail}, updating the outer two thirds of the view distance every 2 and 4 ticks.
+     */
+    public static final LevelOfDetail DEFAULT = new LevelOfDetail(0.33F, 0.66F, 2, 4);
+
+    /**
+     * Gets the tier of a viewer.
+     *
+     * @param distanceSquared The squared distance between the model and the viewer.
+     * @param viewDistance    The view distance of the model in blocks.
+     * @return The tier of the viewer.
+     */
+    public Tier tierAt(float distanceSquared, float viewDistance) {
+        float near = viewDistance * this.nearFraction;
+        if (distanceSquared <= near * near) {
+            return Tier.NEAR;
+        }
+        float mid = viewDistance * this.midFraction;
+        return distanceSquared <= mid * mid ? Tier.MID : Tier.FAR;
+    }
+
+    /**
+     * Gets the interval between updates of a tier.
+     *
+     * @param tier The tier.
+     * @return The interval in ticks.
+     */
+    public int interval(Tier tier) {
+        return switch (tier) {
+            case NEAR -> 1;
+            case MID -> this.midInterval;
+            case FAR -> this.farInterval;
+        };
+    }
+
+    /**
+     * The distance tiers of the viewers of a model.
+     */
+    public enum Tier {
+        NEAR,
+        MID,
+        FAR
+    }
+}
@@ -0,0 +1,20 @@
+package com.glance.glance.api.model.properties;
+
+import com.glance.glance.api.utils.Validation;
+import net.kyori.adventure.text.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Binds the text of a text model to a supplier, sampled by the engine off the server thread.
+ * The model is only updated when a sample differs from the previous one.
+ *
+ * @param supplier The supplier of the text, called from a background thread.
+ * @param interval The interval between samples in ticks. At least 1.
+ */
+public record TextBinding(Supplier<? extends Component> supplier, int interval) {
+    public TextBinding {
+        Validation.checkNotNull(supplier, "supplier");
+        Validation.checkArg(interval >= 1, "interval must be at least 1");
+    }
+}
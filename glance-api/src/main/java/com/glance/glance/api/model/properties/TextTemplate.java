@@ -0,0 +1,165 @@
+package com.glance.glance.api.model.properties;
+
+import com.glance.glance.api.utils.Validation;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A text with placeholder slots resolved per viewer, letting one text model show each viewer its own line.
+ * <p>
+ * Slots are written as {@code {name}} in the template. Each viewer's slots are resolved into a
+ * plain string, which is compared with the string last sent to that viewer, so the text is only
+ * rendered and sent when it actually changed. Viewers resolving to the same string share one
+ * rendered component and one encoded packet.
+ * <p>
+ * Templates are immutable and can be shared between any number of models.
+ *
+ * @param <AViewer> The viewer type of the runtime.
+ */
+public final class TextTemplate<AViewer> {
+
+    /**
+     * The default interval between resolutions, in ticks.
+     */
+    public static final int DEFAULT_REFRESH_INTERVAL = 20;
+
+    // literals.length == slots.length + 1, the resolved text interleaves them
+    private final String[] literals;
+    private final Function<? super AViewer, ?>[] slots;
+    private final Function<String, Component> renderer;
+    private final int refreshInterval;
+
+    private TextTemplate(Builder<AViewer> builder, String[] literals, Function<? super AViewer, ?>[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.renderer = builder.renderer;
+        this.refreshInterval = builder.refreshInterval;
+    }
+
+    /**
+     * Creates a builder for a template.
+     *
+     * @param template  The template, with slots written as {@code {name}}.
+     * @param <AViewer> The viewer type of the runtime.
+     * @return The builder.
+     */
+    public static <AViewer> Builder<AViewer> builder(@NotNull String template) {
+        return new Builder<>(Validation.checkNotNull(template, "template"));
+    }
+
+    /**
+     * Resolves the slots of this template for a viewer.
+     *
+     * @param viewer The viewer.
+     * @return The resolved text, before rendering.
+     */
+    @NotNull
+    public String resolve(@NotNull AViewer viewer) {
+        if (this.slots.length == 0) {
+            return this.literals[0];
+        }
+        StringBuilder text = new StringBuilder(this.literals[0]);
+        for (int i = 0; i < this.slots.length; i++) {
+            text.append(this.slots[i].apply(viewer)).append(this.literals[i + 1]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Renders a resolved text into a component.
+     *
+     * @param resolved The text returned by {@link #resolve(Object)}.
+     * @return The component.
+     */
+    @NotNull
+    public Component render(@NotNull String resolved) {
+        return this.renderer.apply(resolved);
+    }
+
+    /**
+     * Gets the interval between resolutions of this template for each viewer.
+     *
+     * @return The interval in ticks.
+     */
+    public int getRefreshInterval() {
+        return this.refreshInterval;
+    }
+
+    public static final class Builder<AViewer> {
+
+        private final String template;
+        private final Map<String, Function<? super AViewer, ?>> slots = new HashMap<>();
+        private Function<String, Component> renderer = Component::text;
+        private int refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+        private Builder(String template) {
+            this.template = template;
+        }
+
+        /**
+         * Binds a slot to a per viewer value. The value is converted with {@link String#valueOf(Object)}.
+         *
+         * @param name  The slot name, without braces.
+         * @param value The function resolving the value for a viewer.
+         * @return This builder.
+         */
+        public Builder<AViewer> slot(@NotNull String name, @NotNull Function<? super AViewer, ?> value) {
+            Validation.checkNotNull(name, "slot name");
+            Validation.checkNotNull(value, "slot value");
+            this.slots.put(name, value);
+            return this;
+        }
+
+        /**
+         * Sets how resolved texts are rendered into components, such as a MiniMessage parser.
+         * Defaults to plain text.
+         *
+         * @param renderer The renderer.
+         * @return This builder.
+         */
+        public Builder<AViewer> renderer(@NotNull Function<String, Component> renderer) {
+            this.renderer = Validation.checkNotNull(renderer, "renderer");
+            return this;
+        }
+
+        /**
+         * Sets the interval between resolutions for each viewer. Defaults to 20.
+         *
+         * @param ticks The interval in ticks.
+         * @return This builder.
+         */
+        public Builder<AViewer> refreshInterval(int ticks) {
+            Validation.checkArg(ticks >= 1, "refresh interval must be at least 1");
+            this.refreshInterval = ticks;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public TextTemplate<AViewer> build() {
+            List<String> literals = new ArrayList<>();
+            List<Function<? super AViewer, ?>> slots = new ArrayList<>();
+            int start = 0;
+            int open;
+            while ((open = this.template.indexOf('{', start)) >= 0) {
+                int close = this.template.indexOf('}', open);
+                Validation.checkArg(close > open, "Unclosed slot in template: " + this.template);
+                String name = this.template.substring(open + 1, close);
+                Function<? super AViewer, ?> value = this.slots.get(name);
+                Validation.checkArg(value != null, "Unbound slot {" + name + "} in template: " + this.template);
+                literals.add(this.template.substring(start, open));
+                slots.add(value);
+                start = close + 1;
+            }
+            literals.add(this.template.substring(start));
+            return new TextTemplate<>(this, literals.toArray(new String[0]), slots.toArray(new Function[0]));
+        }
+
+    }
+
+}
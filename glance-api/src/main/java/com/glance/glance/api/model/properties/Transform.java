@@ -9,6 +9,13 @@ import org.joml.Vector3f;
 
 import java.util.function.Consumer;
 
+/**
+ * A display transform, composed as translation, scale, left rotation and right rotation.
+ * <p>
+ * Every mutation through this class bumps its version, and the composed matrix is cached until
+ * the next one. Components returned by the getters are live, when mutating them directly
+ * {@link #markChanged()} has to be called afterwards.
+ */
 public class Transform {
 
     @NotNull
@@ -20,6 +27,10 @@ public class Transform {
     @NotNull
     private Quaternionf rightRotation;
 
+    private long version;
+    private final Matrix4f matrix = new Matrix4f();
+    private long matrixVersion = -1;
+
     public Transform() {
         this(
             new Vector3f(),
@@ -34,12 +45,7 @@ public class Transform {
     }
 
     public static Transform fromMatrix(Matrix4f mat) {
-        return new Transform(
-                mat.getTranslation(new Vector3f()),
-                mat.getUnnormalizedRotation(new Quaternionf()),
-                mat.getScale(new Vector3f()),
-                new Quaternionf()
-        );
+        return new Transform().setFromMatrix(mat);
     }
 
     public Transform(
@@ -66,21 +72,25 @@ public class Transform {
     public Transform setTranslation(@NotNull Vector3f translation) {
         Validation.checkNotNull(translation, "translation");
         this.translation = translation;
+        this.version++;
         return this;
     }
 
     public Transform editTranslation(Consumer<Vector3f> editor) {
         editor.accept(this.translation);
+        this.version++;
         return this;
     }
 
     public Transform translate(float x, float y, float z) {
         this.translation.add(x, y, z);
+        this.version++;
         return this;
     }
 
     public Transform translate(Vector3f translation) {
         this.translation.add(translation);
+        this.version++;
         return this;
     }
 
@@ -92,21 +102,25 @@ public class Transform {
     public Transform setLeftRotation(@NotNull Quaternionf leftRotation) {
         Validation.checkNotNull(leftRotation, "leftRotation");
         this.leftRotation = leftRotation;
+        this.version++;
         return this;
     }
 
     public Transform editLeftRotation(Consumer<Quaternionf> editor) {
         editor.accept(this.leftRotation);
+        this.version++;
         return this;
     }
 
     public Transform rotateLeft(float angle, float axisX, float axisY, float axisZ) {
         this.leftRotation.rotateAxis(angle, axisX, axisY, axisZ);
+        this.version++;
         return this;
     }
 
     public Transform rotateLeft(float angle, @NotNull Vector3f rotation) {
         this.leftRotation.rotateAxis(angle, Validation.checkNotNull(rotation, "rotation vector"));
+        this.version++;
         return this;
     }
 
@@ -118,26 +132,31 @@ public class Transform {
     public Transform setScale(@NotNull Vector3f scale) {
         Validation.checkNotNull(scale, "scale");
         this.scale = scale;
+        this.version++;
         return this;
     }
 
     public Transform editScale(Consumer<Vector3f> editor) {
         editor.accept(this.scale);
+        this.version++;
         return this;
     }
 
     public Transform scale(float scalar) {
         this.scale.mul(scalar);
+        this.version++;
         return this;
     }
 
     public Transform scale(float x, float y, float z) {
         this.scale.mul(x, y, z);
+        this.version++;
         return this;
     }
 
     public Transform scale(Vector3f scalar) {
         this.scale.mul(scalar.x, scalar.y, scalar.z);
+        this.version++;
         return this;
     }
 
@@ -149,34 +168,105 @@ public class Transform {
     public Transform setRightRotation(@NotNull Quaternionf rightRotation) {
         Validation.checkNotNull(rightRotation, "rightRotation quaternion");
         this.rightRotation = rightRotation;
+        this.version++;
         return this;
     }
 
     public Transform editRightRotation(Consumer<Quaternionf> editor) {
         editor.accept(this.rightRotation);
+        this.version++;
         return this;
     }
 
     public Transform rotateRight(float angle, float axisX, float axisY, float axisZ) {
         this.rightRotation.rotateAxis(angle, axisX, axisY, axisZ);
+        this.version++;
         return this;
     }
 
     public Transform rotateRight(float angle, @NotNull Vector3f rotation) {
         this.rightRotation.rotateAxis(angle, Validation.checkNotNull(rotation, "rotation vector"));
+        this.version++;
+        return this;
+    }
+
+    /**
+     * Decomposes a matrix into this transform, reusing its components.
+     *
+     * @param mat The matrix to decompose.
+     * @return This transform.
+     */
+    public Transform setFromMatrix(@NotNull Matrix4f mat) {
+        Validation.checkNotNull(mat, "matrix");
+        mat.getTranslation(this.translation);
+        mat.getUnnormalizedRotation(this.leftRotation);
+        mat.getScale(this.scale);
+        this.rightRotation.identity();
+        this.version++;
+        return this;
+    }
+
+    /**
+     * Copies the components of another transform into this one.
+     *
+     * @param other The transform to copy.
+     * @return This transform.
+     */
+    public Transform set(@NotNull Transform other) {
+        Validation.checkNotNull(other, "transform");
+        this.translation.set(other.translation);
+        this.leftRotation.set(other.leftRotation);
+        this.scale.set(other.scale);
+        this.rightRotation.set(other.rightRotation);
+        this.version++;
         return this;
     }
 
+    /**
+     * Flags this transform as changed after one of its components was mutated directly.
+     */
+    public void markChanged() {
+        this.version++;
+    }
+
+    /**
+     * Gets the version of this transform, which changes on every mutation.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Gets the composed matrix of this transform.
+     *
+     * @return A new matrix.
+     */
     @NotNull
     public Matrix4f getMatrix() {
-        Matrix4f mat = new Matrix4f();
-        mat.translate(translation);
-        mat.scale(scale);
-        mat.rotate(leftRotation);
-        if (!MathUtils.isDefaultQuaternion(rightRotation)) {
-            mat.rotate(rightRotation);
+        return getMatrix(new Matrix4f());
+    }
+
+    /**
+     * Gets the composed matrix of this transform, without allocating.
+     *
+     * @param dest The matrix to store the result in.
+     * @return The destination matrix.
+     */
+    @NotNull
+    public Matrix4f getMatrix(@NotNull Matrix4f dest) {
+        if (this.matrixVersion != this.version) {
+            this.matrix.identity();
+            this.matrix.translate(this.translation);
+            this.matrix.scale(this.scale);
+            this.matrix.rotate(this.leftRotation);
+            if (!MathUtils.isDefaultQuaternion(this.rightRotation)) {
+                this.matrix.rotate(this.rightRotation);
+            }
+            this.matrixVersion = this.version;
         }
-        return mat;
+        return dest.set(this.matrix);
     }
 
 }
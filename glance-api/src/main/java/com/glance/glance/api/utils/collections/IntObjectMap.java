@@ -0,0 +1,201 @@
+package com.glance.glance.api.utils.collections;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An open-addressing hash map from primitive {@code int} keys to values, using linear probing
+ * and backward-shift deletion so lookups never box and never walk tombstones.
+ * <p>
+ * This map is not thread-safe. Lookups never throw on a racing write though, which lets a
+ * {@link java.util.concurrent.locks.StampedLock} optimistic read wrap them.
+ *
+ * @param <V> The type of the values.
+ */
+public final class IntObjectMap<V> {
+
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    // The free marker cannot be stored in the table
+    private boolean hasFreeKey;
+    private V freeValue;
+
+    public IntObjectMap() {
+        this(16);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        Validation.checkArg(expectedSize >= 0, "expectedSize must not be negative");
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == FREE) {
+            return this.hasFreeKey ? this.freeValue : null;
+        }
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        if (keys.length != values.length) {
+            return null; // torn by a concurrent resize
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            int current = keys[slot];
+            if (current == key) return (V) values[slot];
+            if (current == FREE) return null;
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return this.hasFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(int key, @NotNull V value) {
+        Validation.checkNotNull(value, "value");
+        if (key == FREE) {
+            V previous = this.freeValue;
+            if (!this.hasFreeKey) this.size++;
+            this.hasFreeKey = true;
+            this.freeValue = value;
+            return previous;
+        }
+        int slot = mix(key) & this.mask;
+        while (this.keys[slot] != FREE) {
+            if (this.keys[slot] == key) {
+                V previous = (V) this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size * 2 > this.keys.length) {
+            rehash(this.keys.length << 1);
+        }
+        return null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == FREE) {
+            if (!this.hasFreeKey) return null;
+            V previous = this.freeValue;
+            this.hasFreeKey = false;
+            this.freeValue = null;
+            this.size--;
+            return previous;
+        }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) this.values[slot];
+        shiftBack(slot);
+        this.size--;
+        return previous;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, FREE);
+        Arrays.fill(this.values, null);
+        this.hasFreeKey = false;
+        this.freeValue = null;
+        this.size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull Consumer<? super V> action) {
+        if (this.hasFreeKey) {
+            action.accept(this.freeValue);
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] != FREE) {
+                action.accept((V) this.values[i]);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int slot = mix(key) & this.mask;
+        while (this.keys[slot] != FREE) {
+            if (this.keys[slot] == key) return slot;
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & this.mask;
+            int key = this.keys[slot];
+            if (key == FREE) break;
+            int ideal = mix(key) & this.mask;
+            // Move the entry into the gap unless it would land before its ideal slot
+            if (((slot - ideal) & this.mask) >= ((slot - gap) & this.mask)) {
+                this.keys[gap] = key;
+                this.values[gap] = this.values[slot];
+                gap = slot;
+            }
+        }
+        this.keys[gap] = FREE;
+        this.values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        int[] keys = new int[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key == FREE) continue;
+            int slot = mix(key) & mask;
+            while (keys[slot] != FREE) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+        this.values = values;
+        this.keys = keys;
+        this.mask = mask;
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+}
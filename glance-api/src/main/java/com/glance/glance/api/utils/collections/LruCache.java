@@ -0,0 +1,102 @@
+package com.glance.glance.api.utils.collections;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded cache evicting its least recently used entry once full, so new keys only push out
+ * the keys that stopped being used instead of the whole cache.
+ * <p>
+ * Values are computed outside the lock, so a slow computation never blocks other lookups. Threads
+ * missing the same key at once may each compute it, the first value stored is returned to all.
+ * <p>
+ * This cache is thread-safe.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class LruCache<K, V> {
+
+    private final int capacity;
+    // Access ordered, the eldest entry is the least recently used
+    private final LinkedHashMap<K, V> entries;
+
+    public LruCache(int capacity) {
+        Validation.checkArg(capacity > 0, "capacity must be positive");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the value of a key, marking it as used.
+     *
+     * @param key The key.
+     * @return The value, or {@code null} if the key is not cached.
+     */
+    @Nullable
+    public V get(@NotNull K key) {
+        synchronized (this.entries) {
+            return this.entries.get(key);
+        }
+    }
+
+    /**
+     * Gets the value of a key, computing and caching it if the key is not cached.
+     *
+     * @param key      The key, stored as is.
+     * @param function The function computing the value of the key.
+     * @return The cached value.
+     */
+    @NotNull
+    public V computeIfAbsent(@NotNull K key, @NotNull Function<? super K, ? extends V> function) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V computed = Validation.checkNotNull(function.apply(key), "computed value");
+        synchronized (this.entries) {
+            V existing = this.entries.putIfAbsent(key, computed);
+            return existing != null ? existing : computed;
+        }
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of entries this cache holds before evicting.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+package com.glance.glance.api.utils.collections;
+
+import com.glance.glance.api.utils.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * An open-addressing hash map keyed by the two {@code long} halves of a {@link UUID}, using linear
+ * probing and backward-shift deletion so lookups never allocate or box.
+ * <p>
+ * This map is not thread-safe. Lookups never throw on a racing write though, which lets a
+ * {@link java.util.concurrent.locks.StampedLock} optimistic read wrap them.
+ *
+ * @param <V> The type of the values.
+ */
+public final class UuidObjectMap<V> {
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    // The nil UUID marks free slots and cannot be stored in the table
+    private boolean hasNilKey;
+    private V nilValue;
+
+    public UuidObjectMap() {
+        this(16);
+    }
+
+    public UuidObjectMap(int expectedSize) {
+        Validation.checkArg(expectedSize >= 0, "expectedSize must not be negative");
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.mostBits = new long[capacity];
+        this.leastBits = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Nullable
+    public V get(@NotNull UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long most, long least) {
+        if (isNil(most, least)) {
+            return this.hasNilKey ? this.nilValue : null;
+        }
+        long[] mostBits = this.mostBits;
+        long[] leastBits = this.leastBits;
+        Object[] values = this.values;
+        if (mostBits.length != values.length || leastBits.length != values.length) {
+            return null; // torn by a concurrent resize
+        }
+        int mask = values.length - 1;
+        int slot = mix(most, least) & mask;
+        for (int probes = 0; probes < values.length; probes++) {
+            long currentMost = mostBits[slot];
+            long currentLeast = leastBits[slot];
+            if (currentMost == most && currentLeast == least) return (V) values[slot];
+            if (isNil(currentMost, currentLeast)) return null;
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(@NotNull UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        if (isNil(most, least)) {
+            return this.hasNilKey;
+        }
+        return indexOf(most, least) >= 0;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(@NotNull UUID key, @NotNull V value) {
+        Validation.checkNotNull(value, "value");
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        if (isNil(most, least)) {
+            V previous = this.nilValue;
+            if (!this.hasNilKey) this.size++;
+            this.hasNilKey = true;
+            this.nilValue = value;
+            return previous;
+        }
+        int slot = mix(most, least) & this.mask;
+        while (!isNil(this.mostBits[slot], this.leastBits[slot])) {
+            if (this.mostBits[slot] == most && this.leastBits[slot] == least) {
+                V previous = (V) this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.mostBits[slot] = most;
+        this.leastBits[slot] = least;
+        this.values[slot] = value;
+        if (++this.size * 2 > this.values.length) {
+            rehash(this.values.length << 1);
+        }
+        return null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(@NotNull UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        if (isNil(most, least)) {
+            if (!this.hasNilKey) return null;
+            V previous = this.nilValue;
+            this.hasNilKey = false;
+            this.nilValue = null;
+            this.size--;
+            return previous;
+        }
+        int slot = indexOf(most, least);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) this.values[slot];
+        shiftBack(slot);
+        this.size--;
+        return previous;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.mostBits, 0L);
+        Arrays.fill(this.leastBits, 0L);
+        Arrays.fill(this.values, null);
+        this.hasNilKey = false;
+        this.nilValue = null;
+        this.size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull Consumer<? super V> action) {
+        if (this.hasNilKey) {
+            action.accept(this.nilValue);
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            if (!isNil(this.mostBits[i], this.leastBits[i])) {
+                action.accept((V) this.values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long most, long least) {
+        int slot = mix(most, least) & this.mask;
+        while (!isNil(this.mostBits[slot], this.leastBits[slot])) {
+            if (this.mostBits[slot] == most && this.leastBits[slot] == least) return slot;
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & this.mask;
+            long most = this.mostBits[slot];
+            long least = this.leastBits[slot];
+            if (isNil(most, least)) break;
+            int ideal = mix(most, least) & this.mask;
+            // Move the entry into the gap unless it would land before its ideal slot
+            if (((slot - ideal) & this.mask) >= ((slot - gap) & this.mask)) {
+                this.mostBits[gap] = most;
+                this.leastBits[gap] = least;
+                this.values[gap] = this.values[slot];
+                gap = slot;
+            }
+        }
+        this.mostBits[gap] = 0L;
+        this.leastBits[gap] = 0L;
+        this.values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMost = this.mostBits;
+        long[] oldLeast = this.leastBits;
+        Object[] oldValues = this.values;
+        long[] mostBits = new long[capacity];
+        long[] leastBits = new long[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (isNil(oldMost[i], oldLeast[i])) continue;
+            int slot = mix(oldMost[i], oldLeast[i]) & mask;
+            while (!isNil(mostBits[slot], leastBits[slot])) slot = (slot + 1) & mask;
+            mostBits[slot] = oldMost[i];
+            leastBits[slot] = oldLeast[i];
+            values[slot] = oldValues[i];
+        }
+        this.values = values;
+        this.mostBits = mostBits;
+        this.leastBits = leastBits;
+        this.mask = mask;
+    }
+
+    private static boolean isNil(long most, long least) {
+        return most == 0L && least == 0L;
+    }
+
+    private static int mix(long most, long least) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+}
@@ -0,0 +1,23 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+java {
+    toolchain.languageVersion = JavaLanguageVersion.of(21)
+}
+
+dependencies {
+    jmh(project(":glance-api"))
+    jmh("org.joml:joml:1.10.8")
+}
+
+jmh {
+    // Allocation rates are reported next to throughput, run with ./gradlew :glance-benchmarks:jmh
+    profilers = listOf("gc")
+    benchmarkMode = listOf("thrpt")
+    timeUnit = "s"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
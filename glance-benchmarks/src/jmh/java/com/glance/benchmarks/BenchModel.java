@@ -0,0 +1,133 @@
+package com.glance.benchmarks;
+
+import com.glance.glance.api.model.AbstractModel;
+import com.glance.glance.api.model.DirtyFlags;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A model with no platform behind it. Its updates are written to a buffer using the display
+ * entity metadata layout, standing in for a runtime's encoder.
+ */
+final class BenchModel extends AbstractModel {
+
+    // Metadata serializer ids of the display entity entries
+    private static final int BYTE = 0;
+    private static final int INT = 1;
+    private static final int FLOAT = 3;
+    private static final int VECTOR3 = 29;
+    private static final int QUATERNION = 30;
+
+    private final ByteBuffer buffer;
+
+    BenchModel(int entityId, Vector3f position, ByteBuffer buffer) {
+        this.entityId = entityId;
+        this.absolutePosition.set(position);
+        this.buffer = buffer;
+    }
+
+    /**
+     * Moves this model, marking its position dirty.
+     *
+     * @param x The x offset.
+     * @param y The y offset.
+     * @param z The z offset.
+     */
+    void move(float x, float y, float z) {
+        beginEdit();
+        this.absolutePosition.add(x, y, z);
+        markDirty(DirtyFlags.POSITION);
+        endEdit();
+    }
+
+    /**
+     * Encodes and clears the pending changes of this model.
+     */
+    void flush() {
+        updateDirty();
+    }
+
+    @Override
+    protected void updateDirty() {
+        this.buffer.clear();
+        encode(consumeDirty(), this.buffer);
+    }
+
+    /**
+     * Writes the metadata entries of the given properties.
+     *
+     * @param mask The {@link DirtyFlags} to encode.
+     * @param out  The buffer to write to.
+     */
+    void encode(int mask, ByteBuffer out) {
+        if (DirtyFlags.has(mask, DirtyFlags.INTERPOLATION_DELAY)) {
+            writeInt(out, 8, this.interpolationDelay);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.INTERPOLATION_DURATION)) {
+            writeInt(out, 9, this.interpolationDuration);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TELEPORT_DURATION)) {
+            writeInt(out, 10, this.teleportDuration);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TRANSLATION)) {
+            writeVector(out, 11, this.transform.getTranslation());
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.SCALE)) {
+            writeVector(out, 12, this.transform.getScale());
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.LEFT_ROTATION)) {
+            writeQuaternion(out, 13, this.transform.getLeftRotation());
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.RIGHT_ROTATION)) {
+            writeQuaternion(out, 14, this.transform.getRightRotation());
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.BILLBOARD)) {
+            out.put((byte) 15).put((byte) BYTE).put((byte) this.billboard.ordinal());
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.BRIGHTNESS)) {
+            writeInt(out, 16, this.blockLight << 4 | this.skyLight << 20);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.VIEW_RANGE)) {
+            writeFloat(out, 17, this.viewRange);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.SHADOW_RADIUS)) {
+            writeFloat(out, 18, this.shadowRadius);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.SHADOW_STRENGTH)) {
+            writeFloat(out, 19, this.shadowStrength);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.CULLING)) {
+            writeFloat(out, 20, this.cullingWidth);
+            writeFloat(out, 21, this.cullingHeight);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.GLOW)) {
+            writeInt(out, 22, this.glowColor.toARGB());
+        }
+        out.put((byte) 0xFF);
+    }
+
+    private static void writeInt(ByteBuffer out, int index, int value) {
+        out.put((byte) index).put((byte) INT);
+        // VarInt, as on the wire
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static void writeFloat(ByteBuffer out, int index, float value) {
+        out.put((byte) index).put((byte) FLOAT).putFloat(value);
+    }
+
+    private static void writeVector(ByteBuffer out, int index, Vector3f value) {
+        out.put((byte) index).put((byte) VECTOR3).putFloat(value.x).putFloat(value.y).putFloat(value.z);
+    }
+
+    private static void writeQuaternion(ByteBuffer out, int index, Quaternionf value) {
+        out.put((byte) index).put((byte) QUATERNION).putFloat(value.x).putFloat(value.y).putFloat(value.z).putFloat(value.w);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.glance.benchmarks;
+
+import com.glance.glance.api.model.properties.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing and packing {@link Color}s.
+ */
+@State(Scope.Thread)
+public class ColorBenchmark {
+
+    @Param({"#FF8800", "#80FF8800", "FF8800"})
+    public String hex;
+
+    private Color color;
+
+    @Setup
+    public void setup() {
+        this.color = Color.fromHex(this.hex);
+    }
+
+    @Benchmark
+    public Color fromHex() {
+        return Color.fromHex(this.hex);
+    }
+
+    @Benchmark
+    public int toARGB() {
+        return this.color.toARGB();
+    }
+
+    @Benchmark
+    public Color roundTrip() {
+        return Color.fromARGB(this.color.toARGB());
+    }
+
+}
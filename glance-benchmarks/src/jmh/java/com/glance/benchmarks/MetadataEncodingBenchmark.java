@@ -0,0 +1,56 @@
+package com.glance.benchmarks;
+
+import com.glance.glance.api.model.DirtyFlags;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding model state into metadata entries, for a full spawn and for typical partial updates.
+ */
+@State(Scope.Thread)
+public class MetadataEncodingBenchmark {
+
+    private BenchModel model;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        this.buffer = ByteBuffer.allocate(1024);
+        this.model = new BenchModel(1, new Vector3f(), this.buffer);
+        this.model.translate(0.5F, 1.0F, 0.5F).rotateLeft(0.3F, 0, 1, 0).shadow(1.0F, 0.5F);
+    }
+
+    @Benchmark
+    public int encodeAll() {
+        return encode(DirtyFlags.ALL);
+    }
+
+    @Benchmark
+    public int encodeTransform() {
+        return encode(DirtyFlags.TRANSFORM | DirtyFlags.INTERPOLATION_DELAY | DirtyFlags.INTERPOLATION_DURATION);
+    }
+
+    @Benchmark
+    public int encodeSingle() {
+        return encode(DirtyFlags.VIEW_RANGE);
+    }
+
+    @Benchmark
+    public int markAndFlush() {
+        this.model.translate(0.01F, 0, 0);
+        this.model.flush();
+        return this.buffer.position();
+    }
+
+    private int encode(int mask) {
+        this.buffer.clear();
+        this.model.encode(mask, this.buffer);
+        return this.buffer.position();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.glance.benchmarks;
+
+import com.glance.glance.api.model.DirtyQueue;
+import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.model.properties.Color;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Setter chains and transform interpolation on a model attached to a dirty queue, as a game would
+ * drive it every tick.
+ */
+@State(Scope.Thread)
+public class ModelSetterBenchmark {
+
+    private static final Color GLOW = Color.fromHex("#FF8800");
+
+    private BenchModel model;
+    private DirtyQueue<BenchModel> queue;
+    private float offset;
+    private float step = 0.01F;
+
+    @Setup
+    public void setup() {
+        this.model = new BenchModel(1, new Vector3f(), ByteBuffer.allocate(1024));
+        this.queue = new DirtyQueue<>();
+        this.queue.attach(this.model);
+    }
+
+    @Benchmark
+    public int setterChain() {
+        this.model.viewRange(2.0F)
+                .shadow(1.0F, 0.5F)
+                .blockLight(12)
+                .skyLight(15)
+                .interpolateOver(2)
+                .glowWithColor(GLOW);
+        return drain();
+    }
+
+    @Benchmark
+    public int bulkEdit() {
+        this.model.edit(m -> m.viewRange(2.0F)
+                .shadow(1.0F, 0.5F)
+                .blockLight(12)
+                .skyLight(15)
+                .interpolateOver(2)
+                .glowWithColor(GLOW));
+        return drain();
+    }
+
+    @Benchmark
+    public int interpolateTransform() {
+        // Cycles through [0, 1), so every call interpolates over the same range
+        this.offset = (this.offset + 0.01F) % 1.0F;
+        float offset = this.offset;
+        this.model.interpolateTransform(2, t -> t.getTranslation().set(offset, 0, 0));
+        return drain();
+    }
+
+    @Benchmark
+    public GlanceModel translate() {
+        // Back and forth, the translation stays near the origin
+        this.step = -this.step;
+        return this.model.translate(this.step, 0, 0);
+    }
+
+    private int drain() {
+        return this.queue.drain(BenchModel::flush);
+    }
+
+}
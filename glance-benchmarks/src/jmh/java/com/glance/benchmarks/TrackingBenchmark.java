@@ -0,0 +1,179 @@
+package com.glance.benchmarks;
+
+import com.glance.glance.api.engine.tracking.SectionIndex;
+import com.glance.glance.api.engine.tracking.ViewCone;
+import com.glance.glance.api.model.DirtyQueue;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The tracking pieces shared with the engine, {@link DirtyQueue}, {@link SectionIndex} and
+ * {@link ViewCone}, over a populated world where a share of the models move every tick.
+ * <p>
+ * {@link #tick(Blackhole)} is a model of the engine's tick built from those pieces, not the
+ * engine itself: moved models are drained and re-indexed, their viewers are checked against the
+ * view cone to pick deferred updates, then each viewer's visible set is reconciled by range alone.
+ * Spawns, despawns and updates go to the blackhole.
+ */
+@State(Scope.Thread)
+public class TrackingBenchmark {
+
+    private static final float WORLD_SIZE = 1024.0F;
+    private static final float VIEW_DISTANCE = 64.0F;
+    private static final int VIEWERS = 50;
+    // Share of the models moved each tick
+    private static final int MOVING_DIVISOR = 10;
+    private static final float MOVE_STEP = 0.25F;
+    // Culling box of every model, updates outside a viewer's cone are deferred
+    private static final float CULLING_SIZE = 1.0F;
+
+    @Param({"1000", "10000", "100000"})
+    public int models;
+
+    private final List<BenchModel> all = new ArrayList<>();
+    private final SectionIndex<BenchModel> index = new SectionIndex<>();
+    private final DirtyQueue<BenchModel> dirty = new DirtyQueue<>();
+    private final Map<BenchModel, Set<Viewer>> viewersOf = new IdentityHashMap<>();
+    private final List<Viewer> viewers = new ArrayList<>();
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (int i = 0; i < this.models; i++) {
+            Vector3f position = new Vector3f(random.nextFloat() * WORLD_SIZE, random.nextFloat() * 64.0F, random.nextFloat() * WORLD_SIZE);
+            BenchModel model = new BenchModel(i + 1, position, buffer);
+            model.flush();
+            this.dirty.attach(model);
+            this.index.update(model, model.getAbsolutePosition(), viewDistance(model));
+            this.all.add(model);
+        }
+        for (int i = 0; i < VIEWERS; i++) {
+            Vector3f eye = new Vector3f(random.nextFloat() * WORLD_SIZE, 32.0F, random.nextFloat() * WORLD_SIZE);
+            Vector3f direction = new Vector3f(random.nextFloat() - 0.5F, 0, random.nextFloat() - 0.5F).normalize();
+            this.viewers.add(new Viewer(eye, direction));
+        }
+    }
+
+    @Benchmark
+    public void tick(Blackhole sink) {
+        move();
+        sink.consume(this.dirty.drain(model -> update(model, sink)));
+        for (int i = 0; i < this.viewers.size(); i++) {
+            updateViewer(this.viewers.get(i), sink);
+        }
+    }
+
+    @Benchmark
+    public int drainOnly() {
+        move();
+        return this.dirty.drain(this::reindex);
+    }
+
+    @Benchmark
+    public void query(Blackhole sink) {
+        for (int i = 0; i < this.viewers.size(); i++) {
+            this.index.query(this.viewers.get(i).eye, sink::consume);
+        }
+    }
+
+    @Benchmark
+    public int viewCone() {
+        int visible = 0;
+        for (int i = 0; i < this.all.size(); i++) {
+            Viewer viewer = this.viewers.get(i % VIEWERS);
+            if (ViewCone.isVisible(viewer.eye, viewer.direction, this.all.get(i).getAbsolutePosition(), CULLING_SIZE, CULLING_SIZE)) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    private void move() {
+        int moving = this.models / MOVING_DIVISOR;
+        for (int i = 0; i < moving; i++) {
+            BenchModel model = this.all.get(this.cursor);
+            Vector3f position = model.getAbsolutePosition();
+            // Wrapped around the world, so the density stays the same for the whole run
+            model.move(step(position.x), 0, step(position.z));
+            this.cursor = (this.cursor + 1) % this.models;
+        }
+    }
+
+    private static float step(float coordinate) {
+        return coordinate + MOVE_STEP < WORLD_SIZE ? MOVE_STEP : MOVE_STEP - WORLD_SIZE;
+    }
+
+    private void reindex(BenchModel model) {
+        model.flush();
+        this.index.update(model, model.getAbsolutePosition(), viewDistance(model));
+    }
+
+    private void update(BenchModel model, Blackhole sink) {
+        reindex(model);
+        Set<Viewer> viewers = this.viewersOf.get(model);
+        if (viewers == null) {
+            return;
+        }
+        for (Viewer viewer : viewers) {
+            // Deferred when culled, sent otherwise
+            sink.consume(ViewCone.isVisible(viewer.eye, viewer.direction, model.getAbsolutePosition(), CULLING_SIZE, CULLING_SIZE));
+        }
+    }
+
+    private void updateViewer(Viewer viewer, Blackhole sink) {
+        Iterator<BenchModel> iterator = viewer.visible.iterator();
+        while (iterator.hasNext()) {
+            BenchModel model = iterator.next();
+            if (isInRange(model, viewer)) continue;
+            iterator.remove();
+            this.viewersOf.get(model).remove(viewer);
+            sink.consume(model.getEntityId()); // despawn
+        }
+        this.index.query(viewer.eye, model -> {
+            if (isInRange(model, viewer) && viewer.visible.add(model)) {
+                this.viewersOf.computeIfAbsent(model, key -> new HashSet<>()).add(viewer);
+                sink.consume(model.getEntityId()); // spawn
+            }
+        });
+    }
+
+    private static boolean isInRange(BenchModel model, Viewer viewer) {
+        float distance = viewDistance(model);
+        return model.getAbsolutePosition().distanceSquared(viewer.eye) <= distance * distance;
+    }
+
+    private static float viewDistance(BenchModel model) {
+        return model.getViewRange() * VIEW_DISTANCE;
+    }
+
+    private static final class Viewer {
+
+        private final Vector3f eye;
+        private final Vector3f direction;
+        private final Set<BenchModel> visible = new HashSet<>();
+
+        private Viewer(Vector3f eye, Vector3f direction) {
+            this.eye = eye;
+            this.direction = direction;
+        }
+
+    }
+
+}
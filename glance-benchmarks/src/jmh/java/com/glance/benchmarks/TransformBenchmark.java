@@ -0,0 +1,80 @@
+package com.glance.benchmarks;
+
+import com.glance.glance.api.model.properties.Transform;
+import org.joml.Matrix4f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mutating a {@link Transform} and converting it to and from a matrix. Mutations set absolute
+ * values, so every call does the same work instead of drifting towards infinite components.
+ */
+@State(Scope.Thread)
+public class TransformBenchmark {
+
+    private static final float TWO_PI = (float) (Math.PI * 2);
+
+    private Transform transform;
+    private Matrix4f matrix;
+    private Matrix4f scratch;
+    private float angle;
+    private float offset;
+
+    @Setup
+    public void setup() {
+        this.transform = Transform.identity()
+                .translate(0.5F, 1.0F, -0.5F)
+                .rotateLeft(0.3F, 0, 1, 0)
+                .scale(2.0F);
+        this.matrix = this.transform.getMatrix();
+        this.scratch = new Matrix4f();
+    }
+
+    @Benchmark
+    public Transform mutate() {
+        this.angle = (this.angle + 0.01F) % TWO_PI;
+        this.transform.getTranslation().set(nextOffset(), 1.0F, -0.5F);
+        this.transform.getLeftRotation().rotationAxis(this.angle, 0, 1, 0);
+        this.transform.getScale().set(2.0F + this.offset);
+        this.transform.markChanged();
+        return this.transform;
+    }
+
+    @Benchmark
+    public Matrix4f getMatrixCached() {
+        return this.transform.getMatrix(this.scratch);
+    }
+
+    @Benchmark
+    public Matrix4f mutateAndGetMatrix() {
+        this.transform.getTranslation().set(nextOffset(), 1.0F, -0.5F);
+        this.transform.markChanged();
+        return this.transform.getMatrix(this.scratch);
+    }
+
+    @Benchmark
+    public Matrix4f getMatrixAllocating() {
+        this.transform.getTranslation().set(nextOffset(), 1.0F, -0.5F);
+        this.transform.markChanged();
+        return this.transform.getMatrix();
+    }
+
+    @Benchmark
+    public Transform fromMatrix() {
+        return Transform.fromMatrix(this.matrix);
+    }
+
+    @Benchmark
+    public Transform setFromMatrix() {
+        return this.transform.setFromMatrix(this.matrix);
+    }
+
+    // Cycles through [0, 1), so values stay in the same range for the whole run
+    private float nextOffset() {
+        this.offset = (this.offset + 0.01F) % 1.0F;
+        return this.offset;
+    }
+
+}
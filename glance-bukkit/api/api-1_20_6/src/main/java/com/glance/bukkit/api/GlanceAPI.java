@@ -4,8 +4,11 @@ import com.glance.bukkit.api.engine.GlanceEngine;
 import com.glance.bukkit.api.model.BlockModel;
 import com.glance.bukkit.api.model.ItemModel;
 import com.glance.bukkit.api.model.TextModel;
+import com.glance.glance.api.model.PixelArt;
+import com.glance.glance.api.model.VoxelStructure;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.inventory.ItemStack;
 
@@ -24,4 +27,54 @@ public interface GlanceAPI {
     TextModel createTextModel(Location location, Component text);
     TextModel createTextModel(Location location, Component text, Consumer<TextModel> editor);
 
-}
\ No newline at end of file
+    /**
+     * Creates an empty voxel structure whose block models are created at their box relative to an
+     * origin and tracked by the engine, teleported when reused for another box, and released from
+     * the engine once no longer used.
+     *
+     * @param origin The location of the structure's minimum corner.
+     * @param sizeX  The size of the grid along x, in blocks.
+     * @param sizeY  The size of the grid along y, in blocks.
+     * @param sizeZ  The size of the grid along z, in blocks.
+     * @return The structure.
+     */
+    default VoxelStructure<BlockData, BlockModel> createVoxelStructure(Location origin, int sizeX, int sizeY, int sizeZ) {
+        return new VoxelStructure<>(sizeX, sizeY, sizeZ, offset -> {
+            BlockModel model = createBlockModel(origin.clone().add(offset.x, offset.y, offset.z), Material.AIR.createBlockData());
+            getEngine().track(model);
+            return model;
+        }, (model, offset) -> getEngine().teleport(model, origin.clone().add(offset.x, offset.y, offset.z), 0),
+                model -> getEngine().release(model));
+    }
+
+    /**
+     * Creates pixel art in glyph mode whose text models are created at their place relative to an
+     * origin and tracked by the engine, and released from it once no longer used.
+     *
+     * @param origin The location of the art's bottom left corner.
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     * @return The pixel art.
+     */
+    default PixelArt<TextModel> createPixelArt(Location origin, int width, int height) {
+        return createPixelArt(origin, PixelArt.builder(width, height));
+    }
+
+    /**
+     * Creates pixel art configured by a builder, such as in background mode, whose text models
+     * are created at their place relative to an origin and tracked by the engine, and released
+     * from it once no longer used.
+     *
+     * @param origin  The location of the art's bottom left corner.
+     * @param builder The configured builder.
+     * @return The pixel art.
+     */
+    default PixelArt<TextModel> createPixelArt(Location origin, PixelArt.Builder builder) {
+        return builder.build(offset -> {
+            TextModel model = createTextModel(origin.clone().add(offset.x, offset.y, offset.z), Component.empty());
+            getEngine().track(model);
+            return model;
+        }, model -> getEngine().release(model));
+    }
+
+}
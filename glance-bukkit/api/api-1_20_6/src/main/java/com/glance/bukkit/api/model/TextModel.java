@@ -1,6 +1,26 @@
 package com.glance.bukkit.api.model;
 
 import com.glance.glance.api.model.GlanceTextModel;
+import com.glance.glance.api.model.properties.TextTemplate;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
 
 public interface TextModel extends GlanceTextModel {
+
+    /**
+     * Gets the template resolved per viewer in place of the text.
+     *
+     * @return The template, or {@code null} if every viewer sees the text.
+     */
+    @Nullable
+    TextTemplate<Player> getTemplate();
+
+    /**
+     * Sets a template resolved per viewer in place of the text. Viewers are only sent their
+     * text when its resolved value changes.
+     *
+     * @param template The template, or {@code null} to show every viewer the text again.
+     */
+    void setTemplate(@Nullable TextTemplate<Player> template);
+
 }
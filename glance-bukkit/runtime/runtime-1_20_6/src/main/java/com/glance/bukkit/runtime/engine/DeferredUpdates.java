@@ -0,0 +1,97 @@
+package com.glance.bukkit.runtime.engine;
+
+import com.glance.bukkit.runtime.model.ModelImpl;
+import com.glance.glance.api.model.DirtyFlags;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The model updates deferred for one viewer, because the model was out of view or the viewer
+ * was out of budget. Only the changed properties are kept, so a newer change of a model merges
+ * into its pending update and the current values are sent once it is released.
+ */
+final class DeferredUpdates {
+
+    /**
+     * Every tick an update waits counts as this many blocks closer to the viewer.
+     */
+    static final float STALENESS_BLOCKS_PER_TICK = 4.0F;
+
+    /**
+     * Orders updates by model priority, then by rank.
+     */
+    static final Comparator<Entry> ORDER = Comparator
+            .comparingInt((Entry entry) -> -entry.model.getUpdatePriority())
+            .thenComparingDouble(entry -> entry.rank);
+
+    private final Player viewer;
+    private final Map<ModelImpl, Entry> entries = new IdentityHashMap<>();
+
+    DeferredUpdates(@NotNull Player viewer) {
+        this.viewer = viewer;
+    }
+
+    @NotNull
+    Player getViewer() {
+        return this.viewer;
+    }
+
+    /**
+     * Defers changes of a model.
+     *
+     * @param model The model.
+     * @param mask  The {@link DirtyFlags} of the changes.
+     * @param tick  The current engine tick.
+     */
+    void defer(@NotNull ModelImpl model, int mask, long tick) {
+        Entry entry = this.entries.get(model);
+        if (entry == null) {
+            this.entries.put(model, new Entry(model, mask, tick));
+        } else {
+            entry.mask |= mask;
+        }
+    }
+
+    void remove(@NotNull ModelImpl model) {
+        this.entries.remove(model);
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    @NotNull
+    Collection<Entry> entries() {
+        return this.entries.values();
+    }
+
+    static final class Entry {
+
+        final ModelImpl model;
+        final long since;
+        int mask;
+        // Distance to the viewer minus the staleness bonus, refreshed before each release pass
+        float rank;
+
+        private Entry(ModelImpl model, int mask, long since) {
+            this.model = model;
+            this.mask = mask;
+            this.since = since;
+        }
+
+        void rank(float distance, long tick) {
+            this.rank = distance - (tick - this.since) * STALENESS_BLOCKS_PER_TICK;
+        }
+
+    }
+
+}
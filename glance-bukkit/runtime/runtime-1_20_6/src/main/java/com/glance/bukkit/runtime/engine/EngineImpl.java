@@ -1,17 +1,105 @@
 package com.glance.bukkit.runtime.engine;
 
 import com.glance.bukkit.api.engine.GlanceEngine;
+import com.glance.bukkit.runtime.engine.packets.InteractionInterceptor;
+import com.glance.bukkit.runtime.engine.packets.PacketEncoder;
+import com.glance.bukkit.runtime.engine.packets.PacketHandlerImpl;
+import com.glance.bukkit.runtime.engine.packets.SharedPacket;
+import com.glance.bukkit.runtime.model.DisplayMetadata;
+import com.glance.bukkit.runtime.model.ModelImpl;
+import com.glance.bukkit.runtime.model.TextModelImpl;
+import com.glance.glance.api.engine.EntityIdAllocator;
+import com.glance.glance.api.engine.TextSampler;
+import com.glance.glance.api.engine.interaction.InteractionListener;
+import com.glance.glance.api.engine.metrics.GlanceMetrics;
+import com.glance.glance.api.engine.metrics.TrackEvent;
+import com.glance.glance.api.engine.metrics.UpdateAllEvent;
+import com.glance.glance.api.engine.metrics.UpdateModelEvent;
+import com.glance.glance.api.engine.metrics.UpdateTrackingEvent;
+import com.glance.glance.api.engine.packets.PacketBudget;
+import com.glance.glance.api.engine.packets.PacketType;
+import com.glance.glance.api.engine.tracking.ModelRegistry;
+import com.glance.glance.api.engine.tracking.SectionIndex;
+import com.glance.glance.api.engine.tracking.ViewCone;
+import com.glance.glance.api.model.DirtyFlags;
+import com.glance.glance.api.model.DirtyQueue;
 import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.model.properties.LevelOfDetail;
+import com.glance.glance.api.model.properties.LevelOfDetail.Tier;
+import com.glance.glance.api.model.properties.TextTemplate;
+import com.glance.glance.api.utils.Validation;
+import io.netty.buffer.Unpooled;
+import io.papermc.paper.adventure.PaperAdventure;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundAddEntityPacket;
+import net.minecraft.network.protocol.game.ClientboundMoveEntityPacket;
+import net.minecraft.network.protocol.game.ClientboundSetEntityDataPacket;
+import net.minecraft.network.protocol.game.ClientboundTeleportEntityPacket;
+import net.minecraft.network.syncher.SynchedEntityData.DataValue;
+import net.minecraft.world.phys.Vec3;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3f;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
 
+/**
+ * The 1.20.6 engine. Every packet is queued per viewer and written when {@link #updateAll()}
+ * ends, so it has to be called once per tick.
+ * <p>
+ * Viewers outside the near tier of a model's {@link LevelOfDetail} receive its changes
+ * coalesced every few ticks instead. A viewer changing tiers is sent what its previous tier held
+ * back within its next update, never as an extra packet. Changes to models behind a viewer,
+ * judged by their culling box, are deferred until the viewer looks their way again. So are
+ * updates past a viewer's {@link PacketBudget}, or while its connection is backed up.
+ */
 public class EngineImpl implements GlanceEngine {
 
+    private static final Tier[] COALESCED_TIERS = {Tier.MID, Tier.FAR};
+    // Relative moves are encoded in 1/4096 of a block, so they reach 8 blocks
+    private static final double MOVE_SCALE = 4096.0D;
+    // Full teleports are sent after this many relative moves, correcting any drift
+    private static final int RELATIVE_MOVES_PER_TELEPORT = 100;
+
+    private final ModelRegistry<ModelImpl> models = new ModelRegistry<>();
+    private final DirtyQueue<ModelImpl> dirtyModels = new DirtyQueue<>();
+    private final Map<UUID, SectionIndex<ModelImpl>> worldIndices = new HashMap<>();
+    private final Map<UUID, Set<ModelImpl>> visibleModels = new HashMap<>();
+    private final Map<ModelImpl, SharedPacket> spawnPackets = new IdentityHashMap<>();
+    private final Set<ModelImpl> coalescedModels = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<TextModelImpl> templatedModels = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<String, SharedPacket> templatePackets = new HashMap<>();
+    private final Map<UUID, DeferredUpdates> deferredUpdates = new HashMap<>();
+    private final PriorityQueue<DeferredUpdates.Entry> releasable = new PriorityQueue<>(DeferredUpdates.ORDER);
+    private final GlanceMetrics metrics = new GlanceMetrics();
+    private final PacketHandlerImpl packetHandler = new PacketHandlerImpl(this.metrics);
+    private final EntityIdAllocator entityIds = new EntityIdAllocator();
+    private final TextSampler textSampler = new TextSampler();
+    private final Set<UUID> intercepted = new HashSet<>();
+    private volatile InteractionListener<Player> interactionListener;
+    private PacketBudget budget = PacketBudget.DEFAULT;
+    private PacketEncoder encoder;
+    private long tick;
+
+    // Where each viewer stands and looks, loaded once at the start of every tick
+    private final Map<UUID, Viewpoint> viewpoints = new HashMap<>();
+    private final Location viewerLocation = new Location(null, 0, 0, 0);
+
     @Override
     public void initialize() {
 
@@ -23,82 +111,701 @@ public class EngineImpl implements GlanceEngine {
     }
 
     @Override
-    public void track(@NotNull GlanceModel model) {
+    public @NotNull EntityIdAllocator getEntityIdAllocator() {
+        return this.entityIds;
+    }
 
+    @Override
+    public @NotNull PacketBudget getPacketBudget() {
+        return this.budget;
     }
 
     @Override
-    public void release(@NotNull GlanceModel model) {
+    public void setPacketBudget(@NotNull PacketBudget budget) {
+        this.budget = Validation.checkNotNull(budget, "packet budget");
+    }
 
+    @Override
+    public @NotNull GlanceMetrics getMetrics() {
+        return this.metrics;
     }
 
     @Override
-    public void release(@NotNull UUID modelId) {
+    public @Nullable InteractionListener<Player> getInteractionListener() {
+        return this.interactionListener;
+    }
 
+    @Override
+    public void setInteractionListener(@Nullable InteractionListener<Player> listener) {
+        this.interactionListener = listener;
+        if (listener == null) {
+            // Connections are left untouched without a listener
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (this.intercepted.remove(player.getUniqueId())) {
+                    InteractionInterceptor.uninstall(player);
+                }
+            }
+            this.intercepted.clear();
+            return;
+        }
+        // Viewers already seeing models get their interceptor now, later ones when a model spawns for them
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (this.intercepted.add(player.getUniqueId())) {
+                InteractionInterceptor.install(this, player);
+            }
+        }
+    }
+
+    @Override
+    public void track(@NotNull GlanceModel model) {
+        ModelImpl impl = asImpl(model);
+        if (isTracked(impl)) {
+            return;
+        }
+        TrackEvent event = new TrackEvent();
+        event.begin();
+        // Registered under its entity id, which stays fixed until the model is released
+        impl.ensureEntityId();
+        this.models.register(impl);
+        this.dirtyModels.attach(impl);
+        // Not spawned for anyone yet, the first snapshot is sent whole
+        impl.publish();
+        if (impl instanceof TextModelImpl text) {
+            this.textSampler.add(text);
+            if (text.getPublishedTemplate() != null) this.templatedModels.add(text);
+        }
+        updateTracking(impl);
+        if (event.shouldCommit()) {
+            event.entityId = impl.getEntityId();
+            event.viewers = impl.getViewers().size();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void release(@NotNull GlanceModel model) {
+        release(model.getUniqueId());
+    }
+
+    @Override
+    public void release(@NotNull UUID modelId) {
+        ModelImpl impl = this.models.unregister(modelId);
+        if (impl == null) {
+            return;
+        }
+        this.dirtyModels.detach(impl);
+        this.coalescedModels.remove(impl);
+        this.templatedModels.remove(impl);
+        if (impl instanceof TextModelImpl text) this.textSampler.remove(text);
+        World world = impl.getWorld();
+        if (world != null) {
+            SectionIndex<ModelImpl> index = this.worldIndices.get(world.getUID());
+            if (index != null) index.remove(impl);
+        }
+        for (Player viewer : impl.getViewers()) {
+            Set<ModelImpl> visible = this.visibleModels.get(viewer.getUniqueId());
+            if (visible != null) visible.remove(impl);
+            despawn(impl, viewer);
+        }
+        impl.getViewers().clear();
+        SharedPacket spawnPacket = this.spawnPackets.remove(impl);
+        if (spawnPacket != null) spawnPacket.release();
+        // Removals were queued first, a recycled id spawning later this tick is written after them
+        impl.releaseEntityId();
     }
 
     @Override
     public boolean isTracked(@NotNull GlanceModel model) {
-        return false;
+        return isTracked(model.getUniqueId());
     }
 
     @Override
     public boolean isTracked(@NotNull UUID modelId) {
-        return false;
+        return this.models.contains(modelId);
     }
 
     @Override
-    public void addViewer(GlanceModel model, Player player) {
+    public @Nullable ModelImpl getModel(@NotNull UUID modelId) {
+        return this.models.get(modelId);
+    }
 
+    @Override
+    public @Nullable ModelImpl getModel(int entityId) {
+        return this.models.getByEntityId(entityId);
     }
 
     @Override
-    public void removeViewer(GlanceModel model, Player player) {
+    public void addViewer(GlanceModel model, Player player) {
+        ModelImpl impl = asImpl(model);
+        if (!isTracked(impl) || !impl.getViewers().add(player)) {
+            return;
+        }
+        this.visibleModels.computeIfAbsent(player.getUniqueId(), id -> new HashSet<>()).add(impl);
+        spawn(impl, player);
+    }
 
+    @Override
+    public void removeViewer(GlanceModel model, Player player) {
+        ModelImpl impl = asImpl(model);
+        if (!impl.getViewers().remove(player)) {
+            return;
+        }
+        Set<ModelImpl> visible = this.visibleModels.get(player.getUniqueId());
+        if (visible != null) visible.remove(impl);
+        despawn(impl, player);
     }
 
     @Override
     public Set<Player> getViewers(GlanceModel model) {
-        return Set.of();
+        return Collections.unmodifiableSet(asImpl(model).getViewers());
     }
 
     @Override
     public void render(GlanceModel model) {
-
+        if (!isTracked(model)) {
+            track(model);
+        }
+        updateModel(model);
     }
 
     @Override
     public void renderAt(GlanceModel model, Location location, int duration) {
-
+        ModelImpl impl = asImpl(model);
+        if (impl.getWorld() != location.getWorld()) {
+            teleport(impl, location, duration);
+            return;
+        }
+        renderAt(impl, location.toVector().toVector3f(), duration);
     }
 
     @Override
     public void renderAt(GlanceModel model, Vector3f position, int duration) {
-
+        ModelImpl impl = asImpl(model);
+        // Moved like a teleport within the world, the update re-indexes it at the new position
+        impl.setTeleportDuration(duration);
+        impl.setPosition(position);
+        updateModel(impl);
     }
 
     @Override
     public void teleport(GlanceModel model, Location location, int duration) {
-
+        ModelImpl impl = asImpl(model);
+        World previous = impl.getWorld();
+        impl.setTeleportDuration(duration);
+        impl.setLocation(location);
+        updateModel(impl);
+        // The published world changed once the update ran
+        if (previous != null && previous != impl.getWorld()) {
+            SectionIndex<ModelImpl> index = this.worldIndices.get(previous.getUID());
+            if (index != null) index.remove(impl);
+        }
     }
 
     @Override
     public void remove(GlanceModel model) {
-
+        release(model);
     }
 
     @Override
     public void updateAll() {
-
+        UpdateAllEvent event = new UpdateAllEvent();
+        event.begin();
+        long start = System.nanoTime();
+        // Bound texts are sampled in the background, changes are picked up by a later tick
+        this.textSampler.sample(this.tick);
+        // Viewer positions and directions are read once, every pass below reuses them
+        loadViewpoints();
+        // Updates deferred on earlier ticks are served before this tick's changes take the budget
+        updateDeferred();
+        // Only models changed since the last tick are visited
+        int dirty = this.dirtyModels.drain(this::updateModel);
+
+        Iterator<Map.Entry<UUID, Set<ModelImpl>>> entries = this.visibleModels.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<UUID, Set<ModelImpl>> entry = entries.next();
+            if (Bukkit.getPlayer(entry.getKey()) != null) continue;
+            for (ModelImpl model : entry.getValue()) {
+                model.getViewers().removeIf(viewer -> viewer.getUniqueId().equals(entry.getKey()));
+                model.getViewerTiers().keySet().removeIf(viewer -> viewer.getUniqueId().equals(entry.getKey()));
+                if (model instanceof TextModelImpl text) text.forget(entry.getKey());
+            }
+            this.deferredUpdates.remove(entry.getKey());
+            this.intercepted.remove(entry.getKey());
+            this.viewpoints.remove(entry.getKey());
+            entries.remove();
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            updateViewer(player);
+        }
+        updateTemplates();
+        updateCoalesced();
+        this.packetHandler.flushAll();
+        this.tick++;
+
+        int deferred = 0;
+        for (DeferredUpdates updates : this.deferredUpdates.values()) {
+            deferred += updates.size();
+        }
+        this.metrics.recordQueues(this.models.size(), deferred, this.coalescedModels.size());
+        this.metrics.recordTick(System.nanoTime() - start, dirty);
+        if (event.shouldCommit()) {
+            event.dirtyModels = dirty;
+            event.trackedModels = this.models.size();
+            event.viewers = this.visibleModels.size();
+            event.commit();
+        }
     }
 
     @Override
     public void updateModel(GlanceModel model) {
-
+        ModelImpl impl = asImpl(model);
+        if (!impl.isDirty()) {
+            return;
+        }
+        UpdateModelEvent event = new UpdateModelEvent();
+        event.begin();
+        // Everything below reads the published snapshot, producers may keep changing the model
+        int mask = impl.publish();
+        if (mask == 0) {
+            // Still being edited by a producer, the model was queued for the next tick
+            return;
+        }
+        boolean moved = DirtyFlags.has(mask, DirtyFlags.POSITION);
+        boolean rangeChanged = DirtyFlags.has(mask, DirtyFlags.VIEW_RANGE);
+        long generation = impl.getState().getGeneration();
+        List<DataValue<?>> data = impl.packChanges(mask);
+        // Built against the previous sent position, which tier changes below still place the model at
+        Packet<ClientGamePacketListener> move = moved ? movePacket(impl) : null;
+
+        if ((data != null || move != null) && !impl.getViewers().isEmpty()) {
+            SharedPacket packet = null;
+            PacketType type = data != null ? PacketType.METADATA : move instanceof ClientboundTeleportEntityPacket ? PacketType.TELEPORT : PacketType.MOVE;
+            for (Player viewer : impl.getViewers()) {
+                Viewpoint viewpoint = viewpoint(viewer);
+                if (isCulled(impl, viewpoint) || !this.packetHandler.hasBudget(viewer, this.budget)) {
+                    defer(impl, viewer, mask);
+                    continue;
+                }
+                int owed = updateTier(impl, viewer, viewpoint);
+                if (owed != 0) {
+                    // Changed tiers, released next tick as one update merged with this change
+                    defer(impl, viewer, mask | owed);
+                    continue;
+                }
+                Tier tier = impl.getViewerTiers().get(viewer);
+                if (tier != Tier.NEAR) {
+                    impl.holdBack(tier, mask);
+                    this.coalescedModels.add(impl);
+                    continue;
+                }
+                // Serialize once for this generation, every near viewer is written the same bytes
+                if (packet == null) {
+                    packet = encodeUpdate(impl, generation, data, move);
+                }
+                this.packetHandler.queue(viewer, impl.getEntityId(), type, packet);
+            }
+            if (packet != null) packet.release();
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.PAYLOAD) && impl instanceof TextModelImpl text) {
+            updateTemplate(text);
+        }
+        if (move != null) {
+            impl.markPositionSent(!(move instanceof ClientboundTeleportEntityPacket));
+            // The cached spawn places the model at the previous sent position
+            SharedPacket spawnPacket = this.spawnPackets.remove(impl);
+            if (spawnPacket != null) spawnPacket.release();
+        }
+        if (moved || rangeChanged) {
+            updateTracking(impl);
+        }
+        if (event.shouldCommit()) {
+            event.entityId = impl.getEntityId();
+            event.dirtyMask = mask;
+            event.viewers = impl.getViewers().size();
+            event.commit();
+        }
     }
 
     @Override
     public void updateTracking(GlanceModel model) {
+        ModelImpl impl = asImpl(model);
+        World world = impl.getWorld();
+        if (!isTracked(impl) || world == null) {
+            return;
+        }
+        UpdateTrackingEvent event = new UpdateTrackingEvent();
+        event.begin();
+        // Only the index is updated, the viewer pass spawns and despawns the model next tick
+        this.worldIndices.computeIfAbsent(world.getUID(), id -> new SectionIndex<>())
+                .update(impl, impl.getState().getPosition(), viewDistance(impl));
+        if (event.shouldCommit()) {
+            event.entityId = impl.getEntityId();
+            event.viewers = impl.getViewers().size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Reconciles the models spawned for a viewer with the models in range of it.
+     * Only the sections around the viewer are inspected.
+     *
+     * @param player The viewer to update.
+     */
+    private void updateViewer(Player player) {
+        World world = player.getWorld();
+        Vector3f position = viewpoint(player).position;
+
+        Set<ModelImpl> visible = this.visibleModels.computeIfAbsent(player.getUniqueId(), id -> new HashSet<>());
+        Iterator<ModelImpl> iterator = visible.iterator();
+        while (iterator.hasNext()) {
+            ModelImpl model = iterator.next();
+            if (isInRange(model, world, position)) continue;
+            iterator.remove();
+            model.getViewers().remove(player);
+            despawn(model, player);
+        }
+
+        SectionIndex<ModelImpl> index = this.worldIndices.get(world.getUID());
+        if (index != null) {
+            index.query(position, model -> {
+                if (isInRange(model, world, position) && visible.add(model)) {
+                    model.getViewers().add(player);
+                    spawn(model, player);
+                }
+            });
+        }
+        this.metrics.recordVisible(visible.size());
+    }
+
+    /**
+     * Releases the updates deferred for each viewer, once the model is back in view and while the
+     * viewer has budget left. Updates are released by priority, distance and staleness.
+     */
+    private void updateDeferred() {
+        Iterator<DeferredUpdates> iterator = this.deferredUpdates.values().iterator();
+        while (iterator.hasNext()) {
+            DeferredUpdates updates = iterator.next();
+            Player viewer = updates.getViewer();
+            if (!viewer.isOnline()) {
+                iterator.remove();
+                continue;
+            }
+            if (!this.packetHandler.hasBudget(viewer, this.budget)) continue;
+            Viewpoint viewpoint = viewpoint(viewer);
+            for (DeferredUpdates.Entry entry : updates.entries()) {
+                if (isCulled(entry.model, viewpoint)) continue;
+                entry.rank(entry.model.getState().getPosition().distance(viewpoint.position), this.tick);
+                this.releasable.add(entry);
+            }
+            while (!this.releasable.isEmpty() && this.packetHandler.hasBudget(viewer, this.budget)) {
+                DeferredUpdates.Entry entry = this.releasable.poll();
+                updates.remove(entry.model);
+                // A tier change is folded into the released update, which takes the budget once
+                int owed = updateTier(entry.model, viewer, viewpoint);
+                Tier tier = entry.model.getViewerTiers().get(viewer);
+                SharedPacket packet = encodeCoalesced(entry.model, entry.mask | owed, entry.model.getLevelOfDetail().interval(tier));
+                this.packetHandler.queue(viewer, entry.model.getEntityId(), PacketType.METADATA, packet);
+                packet.release();
+            }
+            this.releasable.clear();
+            if (updates.isEmpty()) iterator.remove();
+        }
+    }
+
+    private void defer(ModelImpl model, Player viewer, int mask) {
+        this.deferredUpdates.computeIfAbsent(viewer.getUniqueId(), id -> new DeferredUpdates(viewer)).defer(model, mask, this.tick);
+    }
+
+    /**
+     * Sends the viewers of templated text models their resolved text, when it changed since it
+     * was last sent. Refreshes of different models are spread over their interval.
+     */
+    private void updateTemplates() {
+        for (TextModelImpl model : this.templatedModels) {
+            if ((this.tick + model.getEntityId()) % model.getPublishedTemplate().getRefreshInterval() != 0) continue;
+            for (Player viewer : model.getViewers()) {
+                sendTemplate(model, viewer);
+            }
+            releaseTemplatePackets();
+        }
+    }
+
+    private void updateTemplate(TextModelImpl model) {
+        if (model.getPublishedTemplate() == null) {
+            this.templatedModels.remove(model);
+            return;
+        }
+        this.templatedModels.add(model);
+        // A new template is resolved right away instead of at the next refresh
+        for (Player viewer : model.getViewers()) {
+            sendTemplate(model, viewer);
+        }
+        releaseTemplatePackets();
+    }
+
+    /**
+     * Sends a viewer its resolved text if it changed. Texts are encoded once per model and tick,
+     * viewers resolving to the same text are written the same packet.
+     *
+     * @param model  The templated model.
+     * @param viewer The viewer.
+     */
+    private void sendTemplate(TextModelImpl model, Player viewer) {
+        String text = model.resolveFor(viewer);
+        // Left unsent over budget, the next refresh resolves it again
+        if (text == null || !this.packetHandler.hasBudget(viewer, this.budget)) {
+            return;
+        }
+        SharedPacket packet = this.templatePackets.get(text);
+        if (packet == null) {
+            TextTemplate<Player> template = model.getPublishedTemplate();
+            // Per viewer texts are encoded right away and rarely repeat, so they are not interned
+            packet = encoder().encode(model.getState().getGeneration(), new ClientboundSetEntityDataPacket(model.getEntityId(),
+                    List.of(DataValue.create(DisplayMetadata.TEXT, PaperAdventure.asVanilla(template.render(text))))));
+            this.templatePackets.put(text, packet);
+        }
+        this.packetHandler.queue(viewer, model.getEntityId(), PacketType.METADATA, packet);
+        model.markSent(viewer, text);
+    }
+
+    private void releaseTemplatePackets() {
+        for (SharedPacket packet : this.templatePackets.values()) {
+            packet.release();
+        }
+        this.templatePackets.clear();
+    }
+
+    /**
+     * Sends the changes held back from mid and far viewers once their tier interval elapsed.
+     */
+    private void updateCoalesced() {
+        Iterator<ModelImpl> iterator = this.coalescedModels.iterator();
+        while (iterator.hasNext()) {
+            ModelImpl model = iterator.next();
+            boolean pending = false;
+            for (Tier tier : COALESCED_TIERS) {
+                if (model.getHeldBack(tier) == 0) continue;
+                int interval = model.getLevelOfDetail().interval(tier);
+                // Staggered by entity id, so coalesced updates are spread over the interval
+                if (Math.floorMod(this.tick + model.getEntityId(), interval) != 0) {
+                    pending = true;
+                    continue;
+                }
+                int mask = model.pollHeldBack(tier);
+                SharedPacket packet = null;
+                for (Map.Entry<Player, Tier> entry : model.getViewerTiers().entrySet()) {
+                    if (entry.getValue() != tier) continue;
+                    if (isCulled(model, viewpoint(entry.getKey())) || !this.packetHandler.hasBudget(entry.getKey(), this.budget)) {
+                        defer(model, entry.getKey(), mask);
+                        continue;
+                    }
+                    if (packet == null) {
+                        packet = encodeCoalesced(model, mask, interval);
+                    }
+                    this.packetHandler.queue(entry.getKey(), model.getEntityId(), PacketType.METADATA, packet);
+                }
+                if (packet != null) packet.release();
+            }
+            if (!pending) iterator.remove();
+        }
+    }
+
+    /**
+     * Moves a viewer to the level of detail tier matching its distance to a model. Nothing is
+     * queued here: a viewer changing tiers is owed the changes held back from its previous tier,
+     * with the interpolation of its new tier, which the caller merges into the one update it
+     * sends under the viewer's budget.
+     *
+     * @param model     The model.
+     * @param viewer    The viewer of the model.
+     * @param viewpoint The viewpoint of the viewer.
+     * @return The {@link DirtyFlags} owed to the viewer, or {@code 0} if its tier did not change.
+     */
+    private int updateTier(ModelImpl model, Player viewer, Viewpoint viewpoint) {
+        LevelOfDetail levelOfDetail = model.getLevelOfDetail();
+        Tier tier = levelOfDetail.tierAt(model.getState().getPosition().distanceSquared(viewpoint.position), viewDistance(model));
+        Tier previous = model.getViewerTiers().put(viewer, tier);
+        if (previous == null) {
+            previous = Tier.NEAR;
+        }
+        return previous == tier ? 0 : model.getHeldBack(previous) | DirtyFlags.INTERPOLATION;
+    }
+
+    private void loadViewpoints() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            this.viewpoints.computeIfAbsent(player.getUniqueId(), id -> new Viewpoint()).load(player, this.viewerLocation);
+        }
+    }
+
+    private Viewpoint viewpoint(Player player) {
+        Viewpoint viewpoint = this.viewpoints.get(player.getUniqueId());
+        if (viewpoint == null) {
+            // Joined since the tick started, or updated outside of a tick
+            viewpoint = new Viewpoint();
+            viewpoint.load(player, this.viewerLocation);
+            this.viewpoints.put(player.getUniqueId(), viewpoint);
+        }
+        return viewpoint;
+    }
+
+    /**
+     * Checks whether a model is out of view of a viewer. Only models with both culling
+     * dimensions set are culled, like on the client.
+     *
+     * @param model     The model.
+     * @param viewpoint The viewpoint of the viewer.
+     * @return {@code true} if updates to the viewer can be deferred, {@code false} otherwise.
+     */
+    private static boolean isCulled(ModelImpl model, Viewpoint viewpoint) {
+        float width = model.getState().getCullingWidth();
+        float height = model.getState().getCullingHeight();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        return !ViewCone.isVisible(viewpoint.eye, viewpoint.direction, model.getState().getPosition(), width, height);
+    }
+
+    private static boolean isInRange(ModelImpl model, World world, Vector3f position) {
+        if (model.getWorld() != world) {
+            return false;
+        }
+        float distance = viewDistance(model);
+        return model.getState().getPosition().distanceSquared(position) <= distance * distance;
+    }
+
+    private static float viewDistance(ModelImpl model) {
+        return model.getState().getViewRange() * VIEW_RANGE_BLOCKS;
+    }
+
+    /* Packets */
+
+    private void spawn(ModelImpl model, Player player) {
+        // Spawn bursts (joins, crowds walking in) reuse the encoding until the model changes
+        SharedPacket packet = this.spawnPackets.get(model);
+        if (packet == null || packet.getGeneration() != model.getState().getGeneration()) {
+            if (packet != null) packet.release();
+            Vector3f position = model.getSentPosition();
+            packet = encoder().encode(model.getState().getGeneration(),
+                    new ClientboundAddEntityPacket(
+                            model.getEntityId(), model.getUniqueId(),
+                            position.x, position.y, position.z,
+                            0.0F, 0.0F, model.getEntityType(), 0, Vec3.ZERO, 0.0D
+                    ),
+                    new ClientboundSetEntityDataPacket(model.getEntityId(), model.packAll())
+            );
+            this.spawnPackets.put(model, packet);
+        }
+        this.packetHandler.queue(player, model.getEntityId(), PacketType.SPAWN, packet);
+        if (model instanceof TextModelImpl text && text.getPublishedTemplate() != null) {
+            sendTemplate(text, player);
+            releaseTemplatePackets();
+        }
+        // Players joining after the listener was set are intercepted once they can see something to interact with
+        if (this.interactionListener != null && this.intercepted.add(player.getUniqueId())) {
+            InteractionInterceptor.install(this, player);
+        }
+    }
+
+    private SharedPacket encodeUpdate(ModelImpl model, long generation, List<DataValue<?>> data, Packet<ClientGamePacketListener> move) {
+        if (data == null) {
+            return encoder().encode(generation, move);
+        } else if (move != null) {
+            return encoder().encode(generation, new ClientboundSetEntityDataPacket(model.getEntityId(), data), move);
+        }
+        return encoder().encode(generation, new ClientboundSetEntityDataPacket(model.getEntityId(), data));
+    }
+
+    private SharedPacket encodeCoalesced(ModelImpl model, int mask, int interval) {
+        ClientboundSetEntityDataPacket metadata = new ClientboundSetEntityDataPacket(model.getEntityId(), model.packCoalesced(mask, interval));
+        if (DirtyFlags.has(mask, DirtyFlags.POSITION)) {
+            return encoder().encode(model.getState().getGeneration(), metadata, teleportPacket(model));
+        }
+        return encoder().encode(model.getState().getGeneration(), metadata);
+    }
+
+    private void despawn(ModelImpl model, Player player) {
+        model.getViewerTiers().remove(player);
+        if (model instanceof TextModelImpl text) text.forget(player.getUniqueId());
+        DeferredUpdates updates = this.deferredUpdates.get(player.getUniqueId());
+        if (updates != null) updates.remove(model);
+        this.packetHandler.queueRemove(player, model.getEntityId());
+    }
+
+    /**
+     * Builds the packet moving a model from its sent position to its absolute position. A relative
+     * move is used when the offset is small enough, with a periodic teleport to correct drift.
+     *
+     * @param model The moved model.
+     * @return The move packet, or {@code null} if the encoded position did not change.
+     */
+    private static Packet<ClientGamePacketListener> movePacket(ModelImpl model) {
+        Vector3f from = model.getSentPosition();
+        Vector3f to = model.getState().getPosition();
+        long x = Math.round(to.x * MOVE_SCALE) - Math.round(from.x * MOVE_SCALE);
+        long y = Math.round(to.y * MOVE_SCALE) - Math.round(from.y * MOVE_SCALE);
+        long z = Math.round(to.z * MOVE_SCALE) - Math.round(from.z * MOVE_SCALE);
+        if (x == 0 && y == 0 && z == 0) {
+            return null;
+        }
+        if (isShort(x) && isShort(y) && isShort(z) && model.getRelativeMoves() < RELATIVE_MOVES_PER_TELEPORT) {
+            return new ClientboundMoveEntityPacket.Pos(model.getEntityId(), (short) x, (short) y, (short) z, false);
+        }
+        return teleportPacket(model.getEntityId(), to);
+    }
+
+    private static boolean isShort(long value) {
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+    }
+
+    private static ClientboundTeleportEntityPacket teleportPacket(ModelImpl model) {
+        return teleportPacket(model.getEntityId(), model.getSentPosition());
+    }
+
+    private static ClientboundTeleportEntityPacket teleportPacket(int entityId, Vector3f position) {
+        // The vanilla packet can only be built from a live entity, so decode it from its wire form instead
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeVarInt(entityId);
+        buf.writeDouble(position.x);
+        buf.writeDouble(position.y);
+        buf.writeDouble(position.z);
+        buf.writeByte(0);
+        buf.writeByte(0);
+        buf.writeBoolean(false);
+        return ClientboundTeleportEntityPacket.STREAM_CODEC.decode(buf);
+    }
+
+    private PacketEncoder encoder() {
+        if (this.encoder == null) {
+            this.encoder = new PacketEncoder();
+        }
+        return this.encoder;
+    }
+
+    private static ModelImpl asImpl(GlanceModel model) {
+        Validation.checkNotNull(model, "model");
+        Validation.checkArg(model instanceof ModelImpl, "model was not created by this runtime");
+        return (ModelImpl) model;
+    }
+
+    /**
+     * Where a viewer stands and looks.
+     */
+    private static final class Viewpoint {
+
+        private final Vector3f position = new Vector3f();
+        private final Vector3f eye = new Vector3f();
+        private final Vector3f direction = new Vector3f();
+
+        private void load(Player player, Location location) {
+            player.getLocation(location);
+            this.position.set((float) location.getX(), (float) location.getY(), (float) location.getZ());
+            this.eye.set(this.position).add(0.0F, (float) player.getEyeHeight(), 0.0F);
+            double yaw = Math.toRadians(location.getYaw());
+            double pitch = Math.toRadians(location.getPitch());
+            double horizontal = Math.cos(pitch);
+            this.direction.set((float) (-Math.sin(yaw) * horizontal), (float) -Math.sin(pitch), (float) (Math.cos(yaw) * horizontal));
+        }
 
     }
 
@@ -0,0 +1,105 @@
+package com.glance.bukkit.runtime.engine.packets;
+
+import com.glance.bukkit.api.engine.GlanceEngine;
+import com.glance.glance.api.engine.interaction.InteractionListener;
+import com.glance.glance.api.engine.interaction.ModelInteraction;
+import com.glance.glance.api.engine.interaction.ModelInteraction.Action;
+import com.glance.glance.api.model.GlanceModel;
+import com.glance.glance.api.utils.Validation;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import net.minecraft.network.protocol.game.ServerboundInteractPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.phys.Vec3;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
+
+/**
+ * Intercepts the interactions of a player aimed at the engine's entity ids, before the server
+ * decodes them into a lookup that would find no entity. Every other packet passes through.
+ * <p>
+ * Packets are read on the connection's event loop, where only the id range is checked. The
+ * model is resolved and the listener called on the server thread.
+ */
+public final class InteractionInterceptor extends ChannelInboundHandlerAdapter {
+
+    public static final String NAME = "glance_interactions";
+    private static final String PACKET_HANDLER = "packet_handler";
+
+    private final GlanceEngine engine;
+    private final Player viewer;
+
+    private InteractionInterceptor(GlanceEngine engine, Player viewer) {
+        this.engine = engine;
+        this.viewer = viewer;
+    }
+
+    /**
+     * Installs an interceptor in a player's pipeline, unless one is already installed.
+     *
+     * @param engine The engine owning the intercepted entity ids.
+     * @param viewer The player.
+     */
+    public static void install(@NotNull GlanceEngine engine, @NotNull Player viewer) {
+        Validation.checkNotNull(engine, "engine");
+        Validation.checkNotNull(viewer, "viewer");
+        ChannelPipeline pipeline = PacketHandlerImpl.channel(viewer).pipeline();
+        if (pipeline.get(NAME) == null && pipeline.get(PACKET_HANDLER) != null) {
+            pipeline.addBefore(PACKET_HANDLER, NAME, new InteractionInterceptor(engine, viewer));
+        }
+    }
+
+    /**
+     * Removes the interceptor from a player's pipeline, if one is installed.
+     *
+     * @param viewer The player.
+     */
+    public static void uninstall(@NotNull Player viewer) {
+        Validation.checkNotNull(viewer, "viewer");
+        ChannelPipeline pipeline = PacketHandlerImpl.channel(viewer).pipeline();
+        if (pipeline.get(NAME) != null) {
+            pipeline.remove(NAME);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        // Passed through once the listener is unset, even before this handler is removed
+        if (msg instanceof ServerboundInteractPacket packet && this.engine.getInteractionListener() != null
+                && this.engine.getEntityIdAllocator().owns(packet.getEntityId())) {
+            MinecraftServer.getServer().execute(() -> dispatch(packet));
+            return;
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    private void dispatch(ServerboundInteractPacket packet) {
+        InteractionListener<Player> listener = this.engine.getInteractionListener();
+        GlanceModel model = this.engine.getModel(packet.getEntityId());
+        if (listener == null || model == null || !this.viewer.isOnline()) {
+            return;
+        }
+        boolean sneaking = packet.isUsingSecondaryAction();
+        packet.dispatch(new ServerboundInteractPacket.Handler() {
+            @Override
+            public void onInteraction(@NotNull InteractionHand hand) {
+                listener.onInteract(viewer, new ModelInteraction(model, Action.INTERACT, hand == InteractionHand.OFF_HAND, sneaking, null));
+            }
+
+            @Override
+            public void onInteraction(@NotNull InteractionHand hand, @NotNull Vec3 position) {
+                listener.onInteract(viewer, new ModelInteraction(model, Action.INTERACT_AT, hand == InteractionHand.OFF_HAND, sneaking,
+                        new Vector3f((float) position.x, (float) position.y, (float) position.z)));
+            }
+
+            @Override
+            public void onAttack() {
+                listener.onInteract(viewer, new ModelInteraction(model, Action.ATTACK, false, sneaking, null));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.glance.bukkit.runtime.engine.packets;
+
+import com.glance.glance.api.engine.packets.PacketBuilder;
+import com.glance.glance.api.engine.packets.PacketType;
+import com.glance.glance.api.utils.Validation;
+import io.netty.channel.Channel;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.network.protocol.game.ClientboundBundleDelimiterPacket;
+import net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A viewer's packet queue for one tick, written as bundle-delimited groups.
+ * <p>
+ * Queued {@link SharedPacket}s are retained until they are written or dropped.
+ */
+public final class PacketBuilderImpl implements PacketBuilder<SharedPacket> {
+
+    // The client rejects bundles holding more packets than this
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
+    // Removed ids in wire order, and the number of entries queued when each was last removed
+    private final IntArrayList removals = new IntArrayList();
+    private final Int2IntOpenHashMap removedAt = new Int2IntOpenHashMap();
+    private final List<Entry> entries = new ArrayList<>();
+    // Packets and bytes queued per id since its last removal, which drops them
+    private final Int2IntOpenHashMap pendingPackets = new Int2IntOpenHashMap();
+    private final Int2IntOpenHashMap pendingBytes = new Int2IntOpenHashMap();
+    private int droppedPackets;
+    private int queuedBytes;
+
+    @Override
+    public void add(int entityId, @NotNull PacketType type, @NotNull SharedPacket packet) {
+        Validation.checkNotNull(type, "packet type");
+        Validation.checkNotNull(packet, "packet");
+        this.entries.add(new Entry(entityId, type, packet.retain()));
+        this.pendingPackets.addTo(entityId, 1);
+        this.pendingBytes.addTo(entityId, packet.size());
+        this.queuedBytes += packet.size();
+    }
+
+    @Override
+    public void remove(int entityId) {
+        // Queued packets are dropped when the queue is drained, entries added after this call are kept
+        if (!this.removedAt.containsKey(entityId)) {
+            this.removals.add(entityId);
+        }
+        this.removedAt.put(entityId, this.entries.size());
+        this.droppedPackets += this.pendingPackets.remove(entityId);
+        this.queuedBytes -= this.pendingBytes.remove(entityId);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.removals.isEmpty() && this.entries.size() == this.droppedPackets;
+    }
+
+    @Override
+    public int size() {
+        return (this.removals.isEmpty() ? 0 : 1) + this.entries.size() - this.droppedPackets;
+    }
+
+    @Override
+    public void clear() {
+        for (Entry entry : this.entries) {
+            entry.packet.release();
+        }
+        reset();
+    }
+
+    /**
+     * Gets the encoded size of the queued packets, excluding removals.
+     *
+     * @return The size in bytes.
+     */
+    public int queuedBytes() {
+        return this.queuedBytes;
+    }
+
+    /**
+     * Moves the queue into a batch to be written, then clears the queue. The batch takes over
+     * the references to the queued packets.
+     *
+     * @return The batch.
+     */
+    @NotNull
+    public Batch drain() {
+        IntArrayList removals = this.removals.isEmpty() ? null : new IntArrayList(this.removals);
+        Entry[] kept = new Entry[this.entries.size() - this.droppedPackets];
+        int count = 0;
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+            // Queued before the last removal of its entity
+            if (i < this.removedAt.get(entry.entityId)) {
+                entry.packet.release();
+                continue;
+            }
+            kept[count++] = entry;
+        }
+        Batch batch = new Batch(removals, kept);
+        reset();
+        return batch;
+    }
+
+    private void reset() {
+        this.entries.clear();
+        this.removals.clear();
+        this.removedAt.clear();
+        this.pendingPackets.clear();
+        this.pendingBytes.clear();
+        this.droppedPackets = 0;
+        this.queuedBytes = 0;
+    }
+
+    private record Entry(int entityId, PacketType type, SharedPacket packet) {
+    }
+
+    /**
+     * A viewer's queue for one tick, detached from the builder so it can be written on the
+     * channel's event loop.
+     */
+    public static final class Batch {
+
+        private final IntArrayList removals;
+        private final Entry[] entries;
+
+        private Batch(IntArrayList removals, Entry[] entries) {
+            this.removals = removals;
+            this.entries = entries;
+        }
+
+        /**
+         * Writes the batch as bundle-delimited groups and flushes the channel once. Must be
+         * called on the channel's event loop, so no write is scheduled as a task of its own.
+         *
+         * @param channel The viewer's channel.
+         */
+        public void writeAndFlush(@NotNull Channel channel) {
+            int frames = this.removals == null ? 0 : 1;
+            for (Entry entry : this.entries) {
+                frames += entry.packet.frameCount();
+            }
+            boolean bundled = frames > 1;
+            int bundleSize = 0;
+
+            if (bundled) channel.write(new ClientboundBundleDelimiterPacket(), channel.voidPromise());
+            if (this.removals != null) {
+                channel.write(new ClientboundRemoveEntitiesPacket(this.removals), channel.voidPromise());
+                bundleSize++;
+            }
+            for (Entry entry : this.entries) {
+                int count = entry.packet.frameCount();
+                if (bundled && bundleSize + count >= MAX_BUNDLE_SIZE) {
+                    channel.write(new ClientboundBundleDelimiterPacket(), channel.voidPromise());
+                    channel.write(new ClientboundBundleDelimiterPacket(), channel.voidPromise());
+                    bundleSize = 0;
+                }
+                entry.packet.write(channel);
+                entry.packet.release();
+                bundleSize += count;
+            }
+            if (bundled) channel.write(new ClientboundBundleDelimiterPacket(), channel.voidPromise());
+            channel.flush();
+        }
+
+        /**
+         * Drops the batch without writing it.
+         */
+        public void release() {
+            for (Entry entry : this.entries) {
+                entry.packet.release();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.glance.bukkit.runtime.engine.packets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.GameProtocols;
+import net.minecraft.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Serializes clientbound play packets with the same codec the connection encoder uses.
+ */
+public final class PacketEncoder {
+
+    private final StreamCodec<ByteBuf, Packet<? super ClientGamePacketListener>> codec;
+
+    public PacketEncoder() {
+        this.codec = GameProtocols.CLIENTBOUND
+                .bind(RegistryFriendlyByteBuf.decorator(MinecraftServer.getServer().registryAccess()))
+                .codec();
+    }
+
+    /**
+     * Encodes packets into a {@link SharedPacket}, one frame per packet.
+     *
+     * @param generation The model generation the packets were built from.
+     * @param packets    The packets to encode, in write order.
+     * @return The encoded packets, owned by the caller.
+     */
+    @SafeVarargs
+    @NotNull
+    public final SharedPacket encode(long generation, @NotNull Packet<? super ClientGamePacketListener>... packets) {
+        ByteBuf[] frames = new ByteBuf[packets.length];
+        for (int i = 0; i < packets.length; i++) {
+            ByteBuf frame = PooledByteBufAllocator.DEFAULT.directBuffer();
+            try {
+                this.codec.encode(frame, packets[i]);
+            } catch (RuntimeException e) {
+                frame.release();
+                for (int j = 0; j < i; j++) frames[j].release();
+                throw e;
+            }
+            frames[i] = frame;
+        }
+        return new SharedPacket(generation, frames);
+    }
+
+}
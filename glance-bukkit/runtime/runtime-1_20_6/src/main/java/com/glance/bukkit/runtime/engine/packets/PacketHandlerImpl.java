@@ -0,0 +1,110 @@
+package com.glance.bukkit.runtime.engine.packets;
+
+import com.glance.glance.api.engine.metrics.GlanceMetrics;
+import com.glance.glance.api.engine.packets.PacketBudget;
+import com.glance.glance.api.engine.packets.PacketHandler;
+import com.glance.glance.api.utils.Validation;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import org.bukkit.craftbukkit.entity.CraftPlayer;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Queues packets per player for the current tick and writes each player's queue as one group,
+ * flushing the connection once.
+ * <p>
+ * Queues are written straight to the player's channel, past the server's send path. Each queue
+ * is handed to the channel's event loop as a single task, instead of one task per write.
+ */
+public final class PacketHandlerImpl implements PacketHandler<Player, SharedPacket> {
+
+    private final Map<Player, PacketBuilderImpl> builders = new HashMap<>();
+    private final GlanceMetrics metrics;
+
+    public PacketHandlerImpl(@NotNull GlanceMetrics metrics) {
+        this.metrics = Validation.checkNotNull(metrics, "metrics");
+    }
+
+    @Override
+    public @NotNull PacketBuilderImpl getBuilder(@NotNull Player viewer) {
+        Validation.checkNotNull(viewer, "viewer");
+        return this.builders.computeIfAbsent(viewer, player -> new PacketBuilderImpl());
+    }
+
+    @Override
+    public void flush(@NotNull Player viewer) {
+        PacketBuilderImpl builder = this.builders.get(viewer);
+        if (builder != null) {
+            flush(viewer, builder);
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        Iterator<Map.Entry<Player, PacketBuilderImpl>> iterator = this.builders.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Player, PacketBuilderImpl> entry = iterator.next();
+            if (!entry.getKey().isOnline()) {
+                entry.getValue().clear();
+                iterator.remove();
+                continue;
+            }
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void discard(@NotNull Player viewer) {
+        PacketBuilderImpl builder = this.builders.remove(viewer);
+        if (builder != null) {
+            builder.clear();
+        }
+    }
+
+    /**
+     * Checks whether more updates can be queued for a viewer this tick. A viewer whose
+     * connection is backed up has no budget left.
+     *
+     * @param viewer The viewer.
+     * @param budget The budget of each viewer.
+     * @return {@code true} if the viewer is within budget, {@code false} otherwise.
+     */
+    public boolean hasBudget(@NotNull Player viewer, @NotNull PacketBudget budget) {
+        if (!channel(viewer).isWritable()) {
+            return false;
+        }
+        PacketBuilderImpl builder = this.builders.get(viewer);
+        return builder == null || (builder.queuedBytes() < budget.bytesPerTick() && builder.size() < budget.packetsPerTick());
+    }
+
+    static Channel channel(Player viewer) {
+        return ((CraftPlayer) viewer).getHandle().connection.connection.channel;
+    }
+
+    private void flush(Player viewer, PacketBuilderImpl builder) {
+        if (builder.isEmpty()) {
+            return;
+        }
+        this.metrics.recordFlush(builder.size(), builder.queuedBytes());
+        Channel channel = channel(viewer);
+        PacketBuilderImpl.Batch batch = builder.drain();
+        EventLoop eventLoop = channel.eventLoop();
+        if (eventLoop.inEventLoop()) {
+            batch.writeAndFlush(channel);
+            return;
+        }
+        try {
+            eventLoop.execute(() -> batch.writeAndFlush(channel));
+        } catch (RejectedExecutionException e) {
+            // The connection is shutting down
+            batch.release();
+        }
+    }
+
+}
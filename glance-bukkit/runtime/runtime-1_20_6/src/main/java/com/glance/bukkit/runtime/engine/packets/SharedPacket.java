@@ -0,0 +1,88 @@
+package com.glance.bukkit.runtime.engine.packets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * One or more packets serialized once and shared by every viewer they are written to.
+ * <p>
+ * Each frame holds a packet id followed by its payload, ready for the length prepender and
+ * compression of a play connection. Viewers receive retained duplicates of the same buffers,
+ * so the bytes are freed once every write completed and the owner released this packet.
+ */
+public final class SharedPacket {
+
+    private final long generation;
+    private final ByteBuf[] frames;
+
+    SharedPacket(long generation, @NotNull ByteBuf[] frames) {
+        this.generation = generation;
+        this.frames = frames;
+    }
+
+    /**
+     * Gets the model generation these packets were encoded from.
+     *
+     * @return The change generation.
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Writes every frame to a channel without flushing it.
+     *
+     * @param channel The player's channel.
+     */
+    public void write(@NotNull Channel channel) {
+        for (ByteBuf frame : this.frames) {
+            channel.write(frame.retainedDuplicate(), channel.voidPromise());
+        }
+    }
+
+    /**
+     * Gets the number of packets encoded in this shared packet.
+     *
+     * @return The frame count.
+     */
+    public int frameCount() {
+        return this.frames.length;
+    }
+
+    /**
+     * Gets the total encoded size of every frame.
+     *
+     * @return The size in bytes.
+     */
+    public int size() {
+        int size = 0;
+        for (ByteBuf frame : this.frames) {
+            size += frame.readableBytes();
+        }
+        return size;
+    }
+
+    /**
+     * Takes an extra reference to the encoded bytes, for holders outliving the owner's reference.
+     *
+     * @return This shared packet.
+     */
+    @NotNull
+    public SharedPacket retain() {
+        for (ByteBuf frame : this.frames) {
+            frame.retain();
+        }
+        return this;
+    }
+
+    /**
+     * Releases one reference to the encoded bytes.
+     */
+    public void release() {
+        for (ByteBuf frame : this.frames) {
+            frame.release();
+        }
+    }
+
+}
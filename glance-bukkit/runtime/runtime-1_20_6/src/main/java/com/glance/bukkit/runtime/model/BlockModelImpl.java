@@ -1,15 +1,48 @@
 package com.glance.bukkit.runtime.model;
 
 import com.glance.bukkit.api.model.BlockModel;
+import com.glance.glance.api.engine.EntityIdAllocator;
+import com.glance.glance.api.model.DirtyFlags;
 import com.glance.glance.api.utils.Validation;
+import net.minecraft.network.syncher.SynchedEntityData.DataValue;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.block.state.BlockState;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public class BlockModelImpl extends ModelImpl implements BlockModel {
 
     @NotNull
     protected BlockData blockState = Material.AIR.createBlockData();
+    @NotNull
+    private DataValue<BlockState> blockValue = PayloadCache.block(this.blockState);
+    @NotNull
+    private DataValue<BlockState> publishedBlockValue = this.blockValue;
+
+    public BlockModelImpl(@NotNull EntityIdAllocator entityIds) {
+        super(entityIds);
+    }
+
+    @Override
+    public @NotNull EntityType<?> getEntityType() {
+        return EntityType.BLOCK_DISPLAY;
+    }
+
+    @Override
+    protected void snapshot() {
+        super.snapshot();
+        this.publishedBlockValue = this.blockValue;
+    }
+
+    @Override
+    protected void packPayload(int mask, @NotNull List<DataValue<?>> data) {
+        if (DirtyFlags.has(mask, DirtyFlags.PAYLOAD)) {
+            data.add(this.publishedBlockValue);
+        }
+    }
 
     @NotNull
     @Override
@@ -19,7 +52,12 @@ public class BlockModelImpl extends ModelImpl implements BlockModel {
 
     @Override
     public void setBlockState(@NotNull BlockData blockState) {
-        this.blockState = Validation.checkNotNull(blockState, "blockState");
-        markDirty();
+        Validation.checkNotNull(blockState, "blockState");
+        DataValue<BlockState> value = PayloadCache.block(blockState);
+        beginEdit();
+        this.blockState = blockState;
+        this.blockValue = value;
+        markDirty(DirtyFlags.PAYLOAD);
+        endEdit();
     }
 }
@@ -0,0 +1,52 @@
+package com.glance.bukkit.runtime.model;
+
+import com.glance.glance.api.utils.Validation;
+import com.glance.glance.api.utils.collections.LruCache;
+import io.papermc.paper.adventure.AdventureComponent;
+import io.papermc.paper.adventure.PaperAdventure;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interns the vanilla form of adventure components. Models showing equal text share one fully
+ * converted component, so the conversion runs once per distinct text instead of once per model
+ * and update, and the encoder never walks the adventure tree again.
+ * <p>
+ * The cache is bounded. Once full, the least recently used text is evicted for each new one.
+ */
+public final class ComponentCache {
+
+    public static final int CAPACITY = 4096;
+
+    private static final LruCache<Component, net.minecraft.network.chat.Component> CACHE = new LruCache<>(CAPACITY);
+
+    private ComponentCache() {}
+
+    /**
+     * Gets the vanilla form of a component, converting it on first use.
+     *
+     * @param text The adventure component.
+     * @return The shared vanilla component.
+     */
+    @NotNull
+    public static net.minecraft.network.chat.Component toVanilla(@NotNull Component text) {
+        Validation.checkNotNull(text, "text");
+        return CACHE.computeIfAbsent(text, ComponentCache::convert);
+    }
+
+    /**
+     * Gets the number of interned components.
+     *
+     * @return The number of interned components.
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    private static net.minecraft.network.chat.Component convert(Component text) {
+        net.minecraft.network.chat.Component vanilla = PaperAdventure.asVanilla(text);
+        // Paper wraps the adventure tree and converts lazily on each encode otherwise
+        return vanilla instanceof AdventureComponent adventure ? adventure.deepConverted() : vanilla;
+    }
+
+}
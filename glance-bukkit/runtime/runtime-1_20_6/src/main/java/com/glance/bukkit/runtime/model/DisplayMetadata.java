@@ -0,0 +1,64 @@
+package com.glance.bukkit.runtime.model;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.syncher.EntityDataAccessor;
+import net.minecraft.network.syncher.EntityDataSerializers;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.state.BlockState;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Metadata accessors of the 1.20.6 display entities, indexed as the client expects them.
+ */
+public final class DisplayMetadata {
+
+    private DisplayMetadata() {}
+
+    /* Entity */
+    public static final EntityDataAccessor<Byte> SHARED_FLAGS = new EntityDataAccessor<>(0, EntityDataSerializers.BYTE);
+    public static final byte FLAG_GLOWING = 0x40;
+
+    /* Display */
+    public static final EntityDataAccessor<Integer> INTERPOLATION_DELAY = new EntityDataAccessor<>(8, EntityDataSerializers.INT);
+    public static final EntityDataAccessor<Integer> INTERPOLATION_DURATION = new EntityDataAccessor<>(9, EntityDataSerializers.INT);
+    public static final EntityDataAccessor<Integer> TELEPORT_DURATION = new EntityDataAccessor<>(10, EntityDataSerializers.INT);
+    public static final EntityDataAccessor<Vector3f> TRANSLATION = new EntityDataAccessor<>(11, EntityDataSerializers.VECTOR3);
+    public static final EntityDataAccessor<Vector3f> SCALE = new EntityDataAccessor<>(12, EntityDataSerializers.VECTOR3);
+    public static final EntityDataAccessor<Quaternionf> LEFT_ROTATION = new EntityDataAccessor<>(13, EntityDataSerializers.QUATERNION);
+    public static final EntityDataAccessor<Quaternionf> RIGHT_ROTATION = new EntityDataAccessor<>(14, EntityDataSerializers.QUATERNION);
+    public static final EntityDataAccessor<Byte> BILLBOARD = new EntityDataAccessor<>(15, EntityDataSerializers.BYTE);
+    public static final EntityDataAccessor<Integer> BRIGHTNESS = new EntityDataAccessor<>(16, EntityDataSerializers.INT);
+    public static final EntityDataAccessor<Float> VIEW_RANGE = new EntityDataAccessor<>(17, EntityDataSerializers.FLOAT);
+    public static final EntityDataAccessor<Float> SHADOW_RADIUS = new EntityDataAccessor<>(18, EntityDataSerializers.FLOAT);
+    public static final EntityDataAccessor<Float> SHADOW_STRENGTH = new EntityDataAccessor<>(19, EntityDataSerializers.FLOAT);
+    public static final EntityDataAccessor<Float> WIDTH = new EntityDataAccessor<>(20, EntityDataSerializers.FLOAT);
+    public static final EntityDataAccessor<Float> HEIGHT = new EntityDataAccessor<>(21, EntityDataSerializers.FLOAT);
+    public static final EntityDataAccessor<Integer> GLOW_COLOR = new EntityDataAccessor<>(22, EntityDataSerializers.INT);
+
+    /* Block Display */
+    public static final EntityDataAccessor<BlockState> BLOCK_STATE = new EntityDataAccessor<>(23, EntityDataSerializers.BLOCK_STATE);
+
+    /* Item Display */
+    public static final EntityDataAccessor<ItemStack> ITEM_STACK = new EntityDataAccessor<>(23, EntityDataSerializers.ITEM_STACK);
+    public static final EntityDataAccessor<Byte> ITEM_DISPLAY = new EntityDataAccessor<>(24, EntityDataSerializers.BYTE);
+
+    /* Text Display */
+    public static final EntityDataAccessor<Component> TEXT = new EntityDataAccessor<>(23, EntityDataSerializers.COMPONENT);
+    public static final EntityDataAccessor<Integer> LINE_WIDTH = new EntityDataAccessor<>(24, EntityDataSerializers.INT);
+    public static final EntityDataAccessor<Integer> BACKGROUND_COLOR = new EntityDataAccessor<>(25, EntityDataSerializers.INT);
+    public static final EntityDataAccessor<Byte> TEXT_OPACITY = new EntityDataAccessor<>(26, EntityDataSerializers.BYTE);
+    public static final EntityDataAccessor<Byte> TEXT_STYLE = new EntityDataAccessor<>(27, EntityDataSerializers.BYTE);
+
+    /**
+     * Packs block and sky light into the brightness override value.
+     *
+     * @param blockLight The block light level.
+     * @param skyLight   The skylight level.
+     * @return The packed brightness.
+     */
+    public static int packBrightness(int blockLight, int skyLight) {
+        return blockLight << 4 | skyLight << 20;
+    }
+
+}
@@ -1,14 +1,49 @@
 package com.glance.bukkit.runtime.model;
 
 import com.glance.bukkit.api.model.ItemModel;
+import com.glance.glance.api.engine.EntityIdAllocator;
+import com.glance.glance.api.model.DirtyFlags;
 import com.glance.glance.api.utils.Validation;
+import net.minecraft.network.syncher.SynchedEntityData.DataValue;
+import net.minecraft.world.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public class ItemModelImpl extends ModelImpl implements ItemModel {
 
     private ItemStack itemStack = ItemStack.empty();
-    private ViewTransform viewTransform;
+    private ViewTransform viewTransform = ViewTransform.NONE;
+    private DataValue<net.minecraft.world.item.ItemStack> itemValue = PayloadCache.item(this.itemStack);
+    private DataValue<net.minecraft.world.item.ItemStack> publishedItemValue = this.itemValue;
+    private ViewTransform publishedViewTransform = this.viewTransform;
+
+    public ItemModelImpl(@NotNull EntityIdAllocator entityIds) {
+        super(entityIds);
+    }
+
+    @Override
+    public @NotNull EntityType<?> getEntityType() {
+        return EntityType.ITEM_DISPLAY;
+    }
+
+    @Override
+    protected void snapshot() {
+        super.snapshot();
+        this.publishedItemValue = this.itemValue;
+        this.publishedViewTransform = this.viewTransform;
+    }
+
+    @Override
+    protected void packPayload(int mask, @NotNull List<DataValue<?>> data) {
+        if (DirtyFlags.has(mask, DirtyFlags.PAYLOAD)) {
+            data.add(this.publishedItemValue);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.ITEM_VIEW)) {
+            data.add(DataValue.create(DisplayMetadata.ITEM_DISPLAY, (byte) this.publishedViewTransform.ordinal()));
+        }
+    }
 
     @Override
     public @NotNull ItemStack getItem() {
@@ -17,8 +52,13 @@ public class ItemModelImpl extends ModelImpl implements ItemModel {
 
     @Override
     public void setItem(@NotNull ItemStack itemStack) {
-        this.itemStack = Validation.checkNotNull(itemStack, "itemStack");
-        markDirty();
+        Validation.checkNotNull(itemStack, "itemStack");
+        DataValue<net.minecraft.world.item.ItemStack> value = PayloadCache.item(itemStack);
+        beginEdit();
+        this.itemStack = itemStack;
+        this.itemValue = value;
+        markDirty(DirtyFlags.PAYLOAD);
+        endEdit();
     }
 
     @Override
@@ -28,61 +68,91 @@ public class ItemModelImpl extends ModelImpl implements ItemModel {
 
     @Override
     public void setViewTransform(@NotNull ViewTransform view) {
-        this.viewTransform = Validation.checkNotNull(view, "view transform");
-        markDirty();
+        Validation.checkNotNull(view, "view transform");
+        beginEdit();
+        this.viewTransform = view;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
     }
 
     @Override
     public ItemModel setFixedView() {
+        beginEdit();
         this.viewTransform = ViewTransform.FIXED;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setHeadView() {
+        beginEdit();
         this.viewTransform = ViewTransform.HEAD;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setNoViewTransform() {
+        beginEdit();
         this.viewTransform = ViewTransform.NONE;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setGUIView() {
+        beginEdit();
         this.viewTransform = ViewTransform.GUI;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setGroundView() {
+        beginEdit();
         this.viewTransform = ViewTransform.GROUND;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setThirdPersonLeftView() {
+        beginEdit();
         this.viewTransform = ViewTransform.THIRD_PERSON_LEFT;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setThirdPersonRightView() {
+        beginEdit();
         this.viewTransform = ViewTransform.THIRD_PERSON_RIGHT;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setFirstPersonLeftView() {
+        beginEdit();
         this.viewTransform = ViewTransform.FIRST_PERSON_LEFT;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 
     @Override
     public ItemModel setFirstPersonRightView() {
+        beginEdit();
         this.viewTransform = ViewTransform.FIRST_PERSON_RIGHT;
+        markDirty(DirtyFlags.ITEM_VIEW);
+        endEdit();
         return this;
     }
 }
@@ -1,14 +1,357 @@
 package com.glance.bukkit.runtime.model;
 
+import com.glance.glance.api.engine.EntityIdAllocator;
 import com.glance.glance.api.model.AbstractModel;
+import com.glance.glance.api.model.DirtyFlags;
+import com.glance.glance.api.model.ModelState;
+import com.glance.glance.api.model.properties.LevelOfDetail.Tier;
+import com.glance.glance.api.model.properties.Transform;
+import com.glance.glance.api.utils.Validation;
+import net.minecraft.network.syncher.SynchedEntityData.DataValue;
+import net.minecraft.world.entity.EntityType;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class ModelImpl extends AbstractModel {
 
-    // todo data
+    private final EntityIdAllocator entityIds;
+    @Nullable
+    protected World world;
+    @Nullable
+    private World publishedWorld;
+    protected final Set<Player> viewers = new HashSet<>();
+
+    // Transform parts as last sent to viewers, used to drop unchanged parts of a transform rewrite
+    private final Vector3f sentTranslation = new Vector3f();
+    private final Quaternionf sentLeftRotation = new Quaternionf();
+    private final Vector3f sentScale = new Vector3f(1, 1, 1);
+    private final Quaternionf sentRightRotation = new Quaternionf();
+
+    // Position as last broadcast, the base of relative moves. Set when first spawned
+    private final Vector3f sentPosition = new Vector3f();
+    private boolean positionSent;
+    private int relativeMoves;
+
+    // Level of detail state, changes held back from mid and far viewers by tier ordinal
+    private final Map<Player, Tier> viewerTiers = new HashMap<>();
+    private final int[] heldBack = new int[Tier.values().length];
+
+    protected ModelImpl(@NotNull EntityIdAllocator entityIds) {
+        // The entity id is allocated once tracked, an untracked model never holds one
+        this.entityIds = Validation.checkNotNull(entityIds, "entity id allocator");
+    }
+
+    /**
+     * Gets the vanilla entity type this model is spawned as.
+     *
+     * @return The display entity type.
+     */
+    @NotNull
+    public abstract EntityType<?> getEntityType();
 
+    /**
+     * Encodes the metadata entries only present on this model's display type.
+     *
+     * @param mask The {@link DirtyFlags} to encode.
+     * @param data The list to add the entries to.
+     */
+    protected abstract void packPayload(int mask, @NotNull List<DataValue<?>> data);
+
+    /**
+     * Runtime models are only updated by the engine, which publishes them and sends the changes
+     * from the returned mask. Publishing here would drop those changes.
+     *
+     * @throws UnsupportedOperationException always.
+     */
     @Override
     protected void updateDirty() {
-        // todo
+        throw new UnsupportedOperationException("Runtime models are updated by the engine, see EngineImpl#updateModel");
+    }
+
+    @Override
+    public int publish() {
+        return super.publish();
+    }
+
+    @Override
+    protected void snapshot() {
+        this.publishedWorld = this.world;
+    }
+
+    /**
+     * Encodes the metadata entries of the properties changed by a publish.
+     *
+     * @param mask The {@link DirtyFlags} returned by {@link #publish()}.
+     * @return The changed entries, or {@code null} if no entry changed.
+     */
+    @Nullable
+    public List<DataValue<?>> packChanges(int mask) {
+        List<DataValue<?>> data = pack(mask, true, 1);
+        return data.isEmpty() ? null : data;
+    }
+
+    /**
+     * Encodes every metadata entry of this model, as needed to spawn it for a new viewer.
+     *
+     * @return The full metadata.
+     */
+    @NotNull
+    public List<DataValue<?>> packAll() {
+        // A pending change may now be reverted before it is flushed, make the next diff resend the transform
+        this.sentTranslation.set(Float.NaN);
+        this.sentScale.set(Float.NaN);
+        this.sentLeftRotation.set(Float.NaN, Float.NaN, Float.NaN, Float.NaN);
+        this.sentRightRotation.set(Float.NaN, Float.NaN, Float.NaN, Float.NaN);
+        return pack(DirtyFlags.ALL, false, 1);
+    }
+
+    /**
+     * Encodes the current values of some properties for a coalesced update. Interpolation is
+     * restarted and stretched over the update interval when the transform or position is included.
+     *
+     * @param mask     The {@link DirtyFlags} to encode.
+     * @param interval The number of ticks until the next coalesced update.
+     * @return The metadata entries.
+     */
+    @NotNull
+    public List<DataValue<?>> packCoalesced(int mask, int interval) {
+        if (DirtyFlags.has(mask, DirtyFlags.TRANSFORM)) {
+            mask |= DirtyFlags.INTERPOLATION_DELAY | DirtyFlags.INTERPOLATION_DURATION;
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.POSITION)) {
+            mask |= DirtyFlags.TELEPORT_DURATION;
+        }
+        return pack(mask, false, interval);
+    }
+
+    private List<DataValue<?>> pack(int mask, boolean diff, int interval) {
+        // Encoded from the published snapshot only, producers may be writing the staged properties
+        ModelState state = getState();
+        List<DataValue<?>> data = new ArrayList<>(Integer.bitCount(mask));
+        if (DirtyFlags.has(mask, DirtyFlags.GLOW)) {
+            boolean glowing = state.getGlowColor().alpha() != 0;
+            data.add(DataValue.create(DisplayMetadata.SHARED_FLAGS, glowing ? DisplayMetadata.FLAG_GLOWING : (byte) 0));
+            data.add(DataValue.create(DisplayMetadata.GLOW_COLOR, glowing ? state.getGlowColor().toARGB() : -1));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.INTERPOLATION_DELAY)) {
+            data.add(DataValue.create(DisplayMetadata.INTERPOLATION_DELAY, state.getInterpolationDelay()));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.INTERPOLATION_DURATION)) {
+            data.add(DataValue.create(DisplayMetadata.INTERPOLATION_DURATION, state.getInterpolationDuration() + interval - 1));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TELEPORT_DURATION)) {
+            data.add(DataValue.create(DisplayMetadata.TELEPORT_DURATION, Math.min(59, state.getTeleportDuration() + interval - 1)));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TRANSFORM)) {
+            packTransform(state, mask, diff, data);
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.BILLBOARD)) {
+            data.add(DataValue.create(DisplayMetadata.BILLBOARD, (byte) state.getBillboard().ordinal()));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.BRIGHTNESS)) {
+            data.add(DataValue.create(DisplayMetadata.BRIGHTNESS, DisplayMetadata.packBrightness(state.getBlockLight(), state.getSkyLight())));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.VIEW_RANGE)) {
+            data.add(DataValue.create(DisplayMetadata.VIEW_RANGE, state.getViewRange()));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.SHADOW_RADIUS)) {
+            data.add(DataValue.create(DisplayMetadata.SHADOW_RADIUS, state.getShadowRadius()));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.SHADOW_STRENGTH)) {
+            data.add(DataValue.create(DisplayMetadata.SHADOW_STRENGTH, state.getShadowStrength()));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.CULLING)) {
+            data.add(DataValue.create(DisplayMetadata.WIDTH, state.getCullingWidth()));
+            data.add(DataValue.create(DisplayMetadata.HEIGHT, state.getCullingHeight()));
+        }
+        packPayload(mask, data);
+        return data;
+    }
+
+    private void packTransform(ModelState state, int mask, boolean diff, List<DataValue<?>> data) {
+        // Values are copied, packets may be encoded after the snapshot is published again
+        Transform transform = state.getTransform();
+        Vector3f translation = transform.getTranslation();
+        if (DirtyFlags.has(mask, DirtyFlags.TRANSLATION) && !(diff && this.sentTranslation.equals(translation))) {
+            data.add(DataValue.create(DisplayMetadata.TRANSLATION, new Vector3f(translation)));
+            if (diff) this.sentTranslation.set(translation);
+        }
+        Vector3f scale = transform.getScale();
+        if (DirtyFlags.has(mask, DirtyFlags.SCALE) && !(diff && this.sentScale.equals(scale))) {
+            data.add(DataValue.create(DisplayMetadata.SCALE, new Vector3f(scale)));
+            if (diff) this.sentScale.set(scale);
+        }
+        Quaternionf leftRotation = transform.getLeftRotation();
+        if (DirtyFlags.has(mask, DirtyFlags.LEFT_ROTATION) && !(diff && this.sentLeftRotation.equals(leftRotation))) {
+            data.add(DataValue.create(DisplayMetadata.LEFT_ROTATION, new Quaternionf(leftRotation)));
+            if (diff) this.sentLeftRotation.set(leftRotation);
+        }
+        Quaternionf rightRotation = transform.getRightRotation();
+        if (DirtyFlags.has(mask, DirtyFlags.RIGHT_ROTATION) && !(diff && this.sentRightRotation.equals(rightRotation))) {
+            data.add(DataValue.create(DisplayMetadata.RIGHT_ROTATION, new Quaternionf(rightRotation)));
+            if (diff) this.sentRightRotation.set(rightRotation);
+        }
+    }
+
+    /**
+     * Allocates an entity id if this model has none, either because it was never tracked or
+     * because its previous id was released.
+     */
+    public void ensureEntityId() {
+        if (this.entityId == 0) {
+            this.entityId = this.entityIds.allocate();
+        }
+    }
+
+    /**
+     * Returns the entity id of this model for reuse. Only valid once no viewer has it spawned anymore.
+     */
+    public void releaseEntityId() {
+        if (this.entityId != 0) {
+            this.entityIds.release(this.entityId);
+            this.entityId = 0;
+        }
+    }
+
+    /**
+     * Gets the world this model was placed in when last published.
+     *
+     * @return The world, or {@code null} if the model was never placed.
+     */
+    @Nullable
+    public World getWorld() {
+        return this.publishedWorld;
+    }
+
+    /**
+     * Moves the absolute position of this model. Viewers are notified on the next update.
+     *
+     * @param location The new world location.
+     */
+    public void setLocation(@NotNull Location location) {
+        Validation.checkNotNull(location, "location");
+        beginEdit();
+        this.world = location.getWorld();
+        this.absolutePosition.set((float) location.getX(), (float) location.getY(), (float) location.getZ());
+        markDirty(DirtyFlags.POSITION);
+        endEdit();
+    }
+
+    /**
+     * Moves the absolute position of this model within its world. Viewers are notified on the
+     * next update.
+     *
+     * @param position The new position, copied.
+     */
+    public void setPosition(@NotNull Vector3f position) {
+        Validation.checkNotNull(position, "position");
+        beginEdit();
+        this.absolutePosition.set(position);
+        markDirty(DirtyFlags.POSITION);
+        endEdit();
+    }
+
+    /**
+     * Gets the position this model was last broadcast at, which viewers in sync with the model
+     * have it at. Any packet placing the model for a viewer must use this position, as relative
+     * moves are applied on top of it. Until the model is first sent it is the published position.
+     *
+     * @return The sent position.
+     */
+    @NotNull
+    public Vector3f getSentPosition() {
+        if (!this.positionSent) {
+            this.sentPosition.set(getState().getPosition());
+            this.positionSent = true;
+        }
+        return this.sentPosition;
+    }
+
+    /**
+     * Moves the sent position to the published position, once its move was broadcast.
+     *
+     * @param relative Whether the move was sent as a relative move.
+     * @return The number of consecutive relative moves.
+     */
+    public int markPositionSent(boolean relative) {
+        this.sentPosition.set(getState().getPosition());
+        this.positionSent = true;
+        this.relativeMoves = relative ? this.relativeMoves + 1 : 0;
+        return this.relativeMoves;
+    }
+
+    /**
+     * Gets the number of consecutive relative moves since the last teleport.
+     *
+     * @return The number of relative moves.
+     */
+    public int getRelativeMoves() {
+        return this.relativeMoves;
+    }
+
+    /**
+     * Gets the players this model is currently spawned for. Owned by the engine.
+     *
+     * @return The mutable viewer set.
+     */
+    @NotNull
+    public Set<Player> getViewers() {
+        return this.viewers;
+    }
+
+    /**
+     * Gets the level of detail tier each viewer was last updated with. Owned by the engine,
+     * viewers without an entry are in the near tier.
+     *
+     * @return The mutable viewer tiers.
+     */
+    @NotNull
+    public Map<Player, Tier> getViewerTiers() {
+        return this.viewerTiers;
+    }
+
+    /**
+     * Gets the changes held back from the viewers of a tier until its next coalesced update.
+     *
+     * @param tier The tier.
+     * @return The {@link DirtyFlags} mask.
+     */
+    public int getHeldBack(@NotNull Tier tier) {
+        return this.heldBack[tier.ordinal()];
+    }
+
+    /**
+     * Holds changes back from the viewers of a tier until its next coalesced update.
+     *
+     * @param tier The tier.
+     * @param mask The {@link DirtyFlags} of the changes.
+     */
+    public void holdBack(@NotNull Tier tier, int mask) {
+        this.heldBack[tier.ordinal()] |= mask;
+    }
+
+    /**
+     * Gets and clears the changes held back from the viewers of a tier.
+     *
+     * @param tier The tier.
+     * @return The {@link DirtyFlags} mask.
+     */
+    public int pollHeldBack(@NotNull Tier tier) {
+        int mask = this.heldBack[tier.ordinal()];
+        this.heldBack[tier.ordinal()] = 0;
+        return mask;
     }
 
 }
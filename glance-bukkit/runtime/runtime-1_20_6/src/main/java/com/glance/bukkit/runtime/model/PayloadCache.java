@@ -0,0 +1,72 @@
+package com.glance.bukkit.runtime.model;
+
+import com.glance.glance.api.utils.Validation;
+import com.glance.glance.api.utils.collections.LruCache;
+import net.minecraft.network.syncher.SynchedEntityData.DataValue;
+import net.minecraft.world.level.block.state.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.craftbukkit.block.data.CraftBlockData;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the payload metadata values of block and item models, so models showing the same
+ * block or item share one value instead of converting their own on every spawn and update.
+ * <p>
+ * Block states are canonical, their values are kept for as long as the server runs. Items are
+ * keyed by a copy of their content and converted once per distinct item. Like the
+ * {@link ComponentCache}, they are bounded and the least recently used item is evicted once full.
+ */
+public final class PayloadCache {
+
+    public static final int ITEM_CAPACITY = 4096;
+
+    private static final Map<BlockState, DataValue<BlockState>> BLOCKS = new ConcurrentHashMap<>();
+    private static final LruCache<ItemStack, DataValue<net.minecraft.world.item.ItemStack>> ITEMS = new LruCache<>(ITEM_CAPACITY);
+
+    private PayloadCache() {}
+
+    /**
+     * Gets the block state value of a block model.
+     *
+     * @param blockData The block data.
+     * @return The shared metadata value.
+     */
+    @NotNull
+    public static DataValue<BlockState> block(@NotNull BlockData blockData) {
+        Validation.checkNotNull(blockData, "blockData");
+        return BLOCKS.computeIfAbsent(((CraftBlockData) blockData).getState(), state -> DataValue.create(DisplayMetadata.BLOCK_STATE, state));
+    }
+
+    /**
+     * Gets the item value of an item model, converting the item on first use.
+     *
+     * @param itemStack The item.
+     * @return The shared metadata value.
+     */
+    @NotNull
+    public static DataValue<net.minecraft.world.item.ItemStack> item(@NotNull ItemStack itemStack) {
+        Validation.checkNotNull(itemStack, "itemStack");
+        DataValue<net.minecraft.world.item.ItemStack> value = ITEMS.get(itemStack);
+        if (value != null) {
+            return value;
+        }
+        // Keyed by a copy, the caller's item stays mutable
+        ItemStack key = itemStack.clone();
+        return ITEMS.computeIfAbsent(key, item -> DataValue.create(DisplayMetadata.ITEM_STACK, CraftItemStack.asNMSCopy(item)));
+    }
+
+    /**
+     * Gets the number of interned item values.
+     *
+     * @return The number of interned item values.
+     */
+    public static int itemCount() {
+        return ITEMS.size();
+    }
+
+}
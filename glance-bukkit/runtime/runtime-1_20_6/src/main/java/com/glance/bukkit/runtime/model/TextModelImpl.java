@@ -1,89 +1,295 @@
 package com.glance.bukkit.runtime.model;
 
 import com.glance.bukkit.api.model.TextModel;
+import com.glance.glance.api.engine.EntityIdAllocator;
+import com.glance.glance.api.model.DirtyFlags;
 import com.glance.glance.api.model.properties.Color;
+import com.glance.glance.api.model.properties.TextBinding;
+import com.glance.glance.api.model.properties.TextTemplate;
+import com.glance.glance.api.utils.Validation;
 import net.kyori.adventure.text.Component;
+import net.minecraft.network.syncher.SynchedEntityData.DataValue;
+import net.minecraft.world.entity.EntityType;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class TextModelImpl extends ModelImpl implements TextModel {
 
+    private static final int DEFAULT_LINE_WIDTH = 200;
+    private static final Color DEFAULT_BACKGROUND = Color.fromARGB(0x40000000);
+
+    /* Style bits */
+    private static final byte STYLE_SHADOW = 0x01;
+    private static final byte STYLE_SEE_THROUGH = 0x02;
+    private static final byte STYLE_DEFAULT_BACKGROUND = 0x04;
+    private static final byte STYLE_ALIGN_LEFT = 0x08;
+    private static final byte STYLE_ALIGN_RIGHT = 0x10;
+
+    private Component text = Component.empty();
+    private net.minecraft.network.chat.Component vanillaText = ComponentCache.toVanilla(this.text);
+    private int lineWidth = DEFAULT_LINE_WIDTH;
+    private Color backgroundColor = DEFAULT_BACKGROUND;
+    private byte textOpacity = -1;
+    private boolean shadow;
+    private boolean ignoreOcclusion;
+    private boolean defaultBackground;
+    private Alignment alignment = Alignment.CENTER;
+    private TextTemplate<Player> template;
+    private volatile TextBinding textBinding;
+
+    private net.minecraft.network.chat.Component publishedText = this.vanillaText;
+    private int publishedLineWidth = this.lineWidth;
+    private int publishedBackground = this.backgroundColor.toARGB();
+    private byte publishedOpacity = this.textOpacity;
+    private byte publishedStyle;
+    private TextTemplate<Player> publishedTemplate;
+
+    // Engine thread only, the resolved text last sent to each viewer
+    private TextTemplate<Player> sentTemplate;
+    private final Map<UUID, String> sentTexts = new HashMap<>();
+
+    public TextModelImpl(@NotNull EntityIdAllocator entityIds) {
+        super(entityIds);
+    }
+
+    @Override
+    public @NotNull EntityType<?> getEntityType() {
+        return EntityType.TEXT_DISPLAY;
+    }
+
+    @Override
+    protected void snapshot() {
+        super.snapshot();
+        this.publishedText = this.vanillaText;
+        this.publishedLineWidth = this.lineWidth;
+        this.publishedBackground = this.backgroundColor.toARGB();
+        this.publishedOpacity = this.textOpacity;
+        this.publishedStyle = style();
+        this.publishedTemplate = this.template;
+    }
+
+    @Override
+    protected void packPayload(int mask, @NotNull List<DataValue<?>> data) {
+        // With a template, viewers are sent their own text by the engine instead
+        if (DirtyFlags.has(mask, DirtyFlags.PAYLOAD) && this.publishedTemplate == null) {
+            data.add(DataValue.create(DisplayMetadata.TEXT, this.publishedText));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TEXT_LINE_WIDTH)) {
+            data.add(DataValue.create(DisplayMetadata.LINE_WIDTH, this.publishedLineWidth));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TEXT_BACKGROUND)) {
+            data.add(DataValue.create(DisplayMetadata.BACKGROUND_COLOR, this.publishedBackground));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TEXT_OPACITY)) {
+            data.add(DataValue.create(DisplayMetadata.TEXT_OPACITY, this.publishedOpacity));
+        }
+        if (DirtyFlags.has(mask, DirtyFlags.TEXT_STYLE)) {
+            data.add(DataValue.create(DisplayMetadata.TEXT_STYLE, this.publishedStyle));
+        }
+    }
+
+    /**
+     * Gets the published template.
+     *
+     * @return The template, or {@code null} if every viewer is sent the text.
+     */
+    @Nullable
+    public TextTemplate<Player> getPublishedTemplate() {
+        return this.publishedTemplate;
+    }
+
+    /**
+     * Resolves the published template for a viewer.
+     *
+     * @param viewer The viewer.
+     * @return The resolved text, or {@code null} if it matches the text last sent to the viewer.
+     */
+    @Nullable
+    public String resolveFor(@NotNull Player viewer) {
+        TextTemplate<Player> template = this.publishedTemplate;
+        if (template != this.sentTemplate) {
+            this.sentTexts.clear();
+            this.sentTemplate = template;
+        }
+        if (template == null) {
+            return null;
+        }
+        String text = template.resolve(viewer);
+        return text.equals(this.sentTexts.get(viewer.getUniqueId())) ? null : text;
+    }
+
+    /**
+     * Records the resolved text sent to a viewer.
+     *
+     * @param viewer The viewer.
+     * @param text   The resolved text.
+     */
+    public void markSent(@NotNull Player viewer, @NotNull String text) {
+        this.sentTexts.put(viewer.getUniqueId(), text);
+    }
+
+    /**
+     * Forgets the text sent to a viewer, after the model was removed for it.
+     *
+     * @param viewerId The viewer's unique id.
+     */
+    public void forget(@NotNull UUID viewerId) {
+        this.sentTexts.remove(viewerId);
+    }
+
+    private byte style() {
+        byte style = 0;
+        if (this.shadow) style |= STYLE_SHADOW;
+        if (this.ignoreOcclusion) style |= STYLE_SEE_THROUGH;
+        if (this.defaultBackground) style |= STYLE_DEFAULT_BACKGROUND;
+        if (this.alignment == Alignment.LEFT) {
+            style |= STYLE_ALIGN_LEFT;
+        } else if (this.alignment == Alignment.RIGHT) {
+            style |= STYLE_ALIGN_RIGHT;
+        }
+        return style;
+    }
+
     @Override
     public Component getTextData() {
-        return null;
+        return this.text;
     }
 
     @Override
     public void setTextData(Component text) {
+        Validation.checkNotNull(text, "text");
+        if (text.equals(this.text)) {
+            return;
+        }
+        net.minecraft.network.chat.Component vanilla = ComponentCache.toVanilla(text);
+        beginEdit();
+        this.text = text;
+        this.vanillaText = vanilla;
+        markDirty(DirtyFlags.PAYLOAD);
+        endEdit();
+    }
 
+    @Override
+    public @Nullable TextBinding getTextBinding() {
+        return this.textBinding;
+    }
+
+    @Override
+    public void setTextBinding(@Nullable TextBinding binding) {
+        this.textBinding = binding;
     }
 
     @Override
     public int getLineWidth() {
-        return 0;
+        return this.lineWidth;
     }
 
     @Override
     public void setLineWidth(int width) {
-
+        Validation.checkArg(width > 0, "Line width must be positive");
+        beginEdit();
+        this.lineWidth = width;
+        markDirty(DirtyFlags.TEXT_LINE_WIDTH);
+        endEdit();
     }
 
     @Override
     public @NotNull Color getBackgroundColor() {
-        return null;
+        return this.backgroundColor;
     }
 
     @Override
     public void setBackgroundColor(@NotNull Color color) {
-
+        Validation.checkNotNull(color, "background color");
+        beginEdit();
+        this.backgroundColor = color;
+        markDirty(DirtyFlags.TEXT_BACKGROUND);
+        endEdit();
     }
 
     @Override
     public byte getTextOpacity() {
-        return 0;
+        return this.textOpacity;
     }
 
     @Override
     public void setTextOpacity(byte opacity) {
-
+        beginEdit();
+        this.textOpacity = opacity;
+        markDirty(DirtyFlags.TEXT_OPACITY);
+        endEdit();
     }
 
     @Override
     public boolean hasShadow() {
-        return false;
+        return this.shadow;
     }
 
     @Override
     public void setShadow(boolean shadow) {
-
+        beginEdit();
+        this.shadow = shadow;
+        markDirty(DirtyFlags.TEXT_STYLE);
+        endEdit();
     }
 
     @Override
     public boolean hasIgnoreOcclusion() {
-        return false;
+        return this.ignoreOcclusion;
     }
 
     @Override
     public void setIgnoreOcclusion(boolean ignoreOcclusion) {
-
+        beginEdit();
+        this.ignoreOcclusion = ignoreOcclusion;
+        markDirty(DirtyFlags.TEXT_STYLE);
+        endEdit();
     }
 
     @Override
     public boolean hasDefaultBackground() {
-        return false;
+        return this.defaultBackground;
     }
 
     @Override
     public void setDefaultBackground(boolean defaultBackground) {
-
+        beginEdit();
+        this.defaultBackground = defaultBackground;
+        markDirty(DirtyFlags.TEXT_STYLE);
+        endEdit();
     }
 
     @Override
     public @NotNull Alignment getAlignment() {
-        return null;
+        return this.alignment;
     }
 
     @Override
     public void setAlignment(@NotNull Alignment alignment) {
+        Validation.checkNotNull(alignment, "alignment");
+        beginEdit();
+        this.alignment = alignment;
+        markDirty(DirtyFlags.TEXT_STYLE);
+        endEdit();
+    }
 
+    @Override
+    public @Nullable TextTemplate<Player> getTemplate() {
+        return this.template;
+    }
+
+    @Override
+    public void setTemplate(@Nullable TextTemplate<Player> template) {
+        beginEdit();
+        this.template = template;
+        // Sends the text again once the template is removed
+        markDirty(DirtyFlags.PAYLOAD);
+        endEdit();
     }
 }